@@ -1,15 +1,45 @@
 package com.example.todo.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig {
 
+    // Only the OAuth callback uses it, so keep it off the startup path. The timeouts bound how long
+    // a hung provider can hold a bulkhead slot.
+    @Bean
+    @Lazy
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Value("${app.oauth.connect-timeout-ms}") long connectTimeoutMillis,
+            @Value("${app.oauth.read-timeout-ms}") long readTimeoutMillis) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMillis))
+                .build();
+    }
+
+    // Binary alternatives to JSON for native clients, picked by Accept / Content-Type.
+    // Built from Boot's builder so dates and features match the JSON mapper; they replace
+    // Spring MVC's defaults in place, after JSON, so JSON stays the default.
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
     }
 }
@@ -0,0 +1,30 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ProductivityResponse;
+import com.example.todo.security.UserPrincipal;
+import com.example.todo.stats.TaskStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final TaskStatsService taskStatsService;
+
+    // Defaults to the last 30 days, today included
+    @GetMapping("/productivity")
+    public ResponseEntity<ProductivityResponse> getProductivity(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(taskStatsService.getProductivity(user, start, end));
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.todo.controller;
 
+import com.example.todo.dto.BulkUpdateRequest;
+import com.example.todo.dto.BulkUpdateResponse;
+import com.example.todo.dto.MoveTaskRequest;
+import com.example.todo.dto.OccurrenceRequest;
+import com.example.todo.dto.TaskNodeResponse;
+import com.example.todo.dto.TaskPositionRequest;
 import com.example.todo.dto.TaskRequest;
 import com.example.todo.dto.TaskResponse;
 import com.example.todo.entity.Priority;
 import com.example.todo.entity.Status;
+import com.example.todo.exception.AppException;
+import com.example.todo.service.TagFilter;
 import com.example.todo.service.TaskService;
 import com.example.todo.security.UserPrincipal;
 import jakarta.validation.Valid;
@@ -11,11 +19,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -31,9 +43,13 @@ public class TaskController {
             @RequestParam(required = false) Status status,
             @RequestParam(required = false) LocalDateTime deadlineFrom,
             @RequestParam(required = false) LocalDateTime deadlineTo,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(required = false) List<String> anyTag,
+            @RequestParam(required = false) List<String> notTag,
             @PageableDefault(size = 20, sort = "priority") Pageable pageable) {
 
-        return ResponseEntity.ok(taskService.getTasks(user, priority, status, deadlineFrom, deadlineTo, pageable));
+        return ResponseEntity.ok(taskService.getTasks(user, priority, status, deadlineFrom, deadlineTo,
+                TagFilter.of(tag, anyTag, notTag), pageable));
     }
 
     @PostMapping
@@ -41,29 +57,104 @@ public class TaskController {
             @AuthenticationPrincipal UserPrincipal user,
             @Valid @RequestBody TaskRequest request) {
         TaskResponse created = taskService.createTask(user, request);
-        return ResponseEntity.created(URI.create("/api/tasks/" + created.getId())).body(created);
+        return ResponseEntity.created(URI.create("/api/tasks/" + created.getId())).eTag(eTag(created)).body(created);
+    }
+
+    // Applies the same filter as GET /api/tasks in one statement and returns the number of changed tasks
+    @PatchMapping
+    public ResponseEntity<BulkUpdateResponse> bulkUpdate(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) LocalDateTime deadlineFrom,
+            @RequestParam(required = false) LocalDateTime deadlineTo,
+            @RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.ok(taskService.bulkUpdate(user, priority, status, deadlineFrom, deadlineTo, request));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTask(
             @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTask(user, id));
+        TaskResponse task = taskService.getTask(user, id);
+        return ResponseEntity.ok().eTag(eTag(task)).body(task);
+    }
+
+    @GetMapping("/{id}/subtree")
+    public ResponseEntity<TaskNodeResponse> getSubtree(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(taskService.getSubtree(user, id));
+    }
+
+    // Moves the task and everything below it
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<TaskResponse> moveTask(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody MoveTaskRequest request) {
+        TaskResponse moved = taskService.moveTask(user, id, request, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(moved)).body(moved);
+    }
+
+    // Drag-and-drop: places the task between two others in the manual order (sort=manualRank)
+    @PutMapping("/{id}/position")
+    public ResponseEntity<TaskResponse> repositionTask(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TaskPositionRequest request) {
+        TaskResponse placed = taskService.repositionTask(user, id, request, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(placed)).body(placed);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<TaskResponse> updateTask(
             @AuthenticationPrincipal UserPrincipal user,
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody TaskRequest request) {
-        return ResponseEntity.ok(taskService.updateTask(user, id, request));
+        TaskResponse updated = taskService.updateTask(user, id, request, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(updated)).body(updated);
+    }
+
+    @PutMapping("/{id}/occurrences/{occurrence}")
+    public ResponseEntity<TaskResponse> updateOccurrence(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrence,
+            @RequestBody OccurrenceRequest request) {
+        return ResponseEntity.ok(taskService.updateOccurrence(user, id, occurrence, request));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(
             @AuthenticationPrincipal UserPrincipal user,
-            @PathVariable Long id) {
-        taskService.deleteTask(user, id);
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.deleteTask(user, id, expectedVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    private static String eTag(TaskResponse task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    // If-Match uses strong comparison: weak or malformed tags never match
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to 412
+            }
+        }
+        throw new AppException("If-Match does not match the current task version",
+                HttpStatus.PRECONDITION_FAILED, "PRECONDITION_FAILED");
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.ListMemberRequest;
+import com.example.todo.dto.ListMemberResponse;
+import com.example.todo.dto.TaskListRequest;
+import com.example.todo.dto.TaskListResponse;
+import com.example.todo.dto.TaskRequest;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.security.UserPrincipal;
+import com.example.todo.service.TaskListService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.util.List;
+
+// Shared task lists. Single tasks of a list are read and changed through /api/tasks/{id}.
+@RestController
+@RequestMapping("/api/lists")
+@RequiredArgsConstructor
+public class TaskListController {
+
+    private final TaskListService taskListService;
+
+    @GetMapping
+    public ResponseEntity<List<TaskListResponse>> getLists(@AuthenticationPrincipal UserPrincipal user) {
+        return ResponseEntity.ok(taskListService.getLists(user));
+    }
+
+    @PostMapping
+    public ResponseEntity<TaskListResponse> createList(
+            @AuthenticationPrincipal UserPrincipal user,
+            @Valid @RequestBody TaskListRequest request) {
+        TaskListResponse created = taskListService.createList(user, request);
+        return ResponseEntity.created(URI.create("/api/lists/" + created.getId())).body(created);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteList(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id) {
+        taskListService.deleteList(user, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/members")
+    public ResponseEntity<List<ListMemberResponse>> getMembers(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(taskListService.getMembers(user, id));
+    }
+
+    @PutMapping("/{id}/members")
+    public ResponseEntity<ListMemberResponse> putMember(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @Valid @RequestBody ListMemberRequest request) {
+        return ResponseEntity.ok(taskListService.putMember(user, id, request));
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<Void> removeMember(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @PathVariable Long userId) {
+        taskListService.removeMember(user, id, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<Page<TaskResponse>> getTasks(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @PageableDefault(size = 20, sort = "priority") Pageable pageable) {
+        return ResponseEntity.ok(taskListService.getTasks(user, id, pageable));
+    }
+
+    @PostMapping("/{id}/tasks")
+    public ResponseEntity<TaskResponse> createTask(
+            @AuthenticationPrincipal UserPrincipal user,
+            @PathVariable Long id,
+            @Valid @RequestBody TaskRequest request) {
+        TaskResponse created = taskListService.createTask(user, id, request);
+        return ResponseEntity.created(URI.create("/api/tasks/" + created.getId()))
+                .eTag("\"" + created.getVersion() + "\"")
+                .body(created);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import lombok.Data;
+
+@Data
+public class BulkUpdateRequest {
+    private Priority priority;
+
+    private Status status;
+}
@@ -0,0 +1,12 @@
+package com.example.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateResponse {
+    private int updated;
+}
@@ -0,0 +1,28 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.TaskDailyStats;
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class DailyStatsResponse {
+    private LocalDate day;
+    private int created;
+    private int completed;
+    private int completedOnTime;
+    private int completedLate;
+    private long lateSeconds;
+
+    public static DailyStatsResponse fromEntity(TaskDailyStats stats) {
+        return DailyStatsResponse.builder()
+                .day(stats.getDay())
+                .created(stats.getCreated())
+                .completed(stats.getCompleted())
+                .completedOnTime(stats.getCompletedOnTime())
+                .completedLate(stats.getCompletedLate())
+                .lateSeconds(stats.getLateSeconds())
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.ListRole;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+// Adds a user to a list or changes their role; OWNER cannot be granted
+@Data
+public class ListMemberRequest {
+    @NotBlank
+    private String username;
+
+    @NotNull
+    private ListRole role;
+}
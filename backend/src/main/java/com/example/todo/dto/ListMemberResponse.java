@@ -0,0 +1,15 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.ListRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ListMemberResponse {
+    private Long userId;
+    private String username;
+    private ListRole role;
+}
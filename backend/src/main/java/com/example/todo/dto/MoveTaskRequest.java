@@ -0,0 +1,8 @@
+package com.example.todo.dto;
+
+import lombok.Data;
+
+@Data
+public class MoveTaskRequest {
+    private Long parentId; // null makes the task top-level
+}
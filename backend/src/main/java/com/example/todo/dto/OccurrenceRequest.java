@@ -0,0 +1,11 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Status;
+import lombok.Data;
+
+@Data
+public class OccurrenceRequest {
+    private Status status;
+
+    private boolean skipped; // removes this occurrence from the series
+}
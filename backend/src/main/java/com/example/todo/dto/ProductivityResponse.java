@@ -0,0 +1,20 @@
+package com.example.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class ProductivityResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private long created;
+    private long completed;
+    private long completedOnTime;
+    private long completedLate;
+    private Double onTimeRate; // null without completed tasks that had a deadline
+    private Double averageLatenessMinutes; // null without late completions
+    private List<DailyStatsResponse> days;
+}
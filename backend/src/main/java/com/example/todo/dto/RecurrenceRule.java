@@ -0,0 +1,31 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.RecurrenceFrequency;
+import com.example.todo.entity.Task;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecurrenceRule {
+    @NotNull
+    private RecurrenceFrequency frequency;
+
+    @Min(1)
+    private int interval = 1; // every N days/weeks/months
+
+    private LocalDateTime until; // inclusive, open-ended when null
+
+    public static RecurrenceRule fromEntity(Task task) {
+        if (!task.isRecurring()) {
+            return null;
+        }
+        return new RecurrenceRule(task.getRecurrenceFrequency(), task.getRecurrenceInterval(),
+                task.getRecurrenceUntil());
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.todo.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class TaskListRequest {
+    @NotBlank
+    @Size(max = 100)
+    private String name;
+}
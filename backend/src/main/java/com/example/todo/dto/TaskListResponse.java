@@ -0,0 +1,22 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.ListRole;
+import com.example.todo.service.ListMembership;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskListResponse {
+    private Long id;
+    private String name;
+    private Long ownerId;
+    private ListRole role; // the caller's role on the list
+
+    public static TaskListResponse from(ListMembership membership) {
+        return new TaskListResponse(membership.getListId(), membership.getName(), membership.getOwnerId(),
+                membership.getRole());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todo.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+public class TaskNodeResponse {
+    private TaskResponse task;
+    private int subtasks; // all descendants, not only direct children
+    private int completedSubtasks;
+    private Integer percentComplete; // null for a leaf
+
+    @Builder.Default
+    private List<TaskNodeResponse> children = new ArrayList<>();
+}
@@ -0,0 +1,10 @@
+package com.example.todo.dto;
+
+import lombok.Data;
+
+// The neighbours a task was dropped between in the manual order; either may be null at the ends
+@Data
+public class TaskPositionRequest {
+    private Long afterId;
+    private Long beforeId;
+}
@@ -2,10 +2,13 @@ package com.example.todo.dto;
 
 import com.example.todo.entity.Priority;
 import com.example.todo.entity.Status;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Future;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class TaskRequest {
@@ -18,4 +21,12 @@ public class TaskRequest {
 
     @Future(message = "Deadline must be in the future")
     private LocalDateTime deadline;
+
+    @Valid
+    private RecurrenceRule recurrence;
+
+    private Long parentId; // only read on create; existing tasks move through PUT /{id}/parent
+
+    @Size(max = 20)
+    private List<@NotBlank @Size(max = 50) String> tags; // replaces the task's tags; null keeps them
 }
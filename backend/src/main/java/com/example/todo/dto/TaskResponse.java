@@ -6,27 +6,58 @@ import com.example.todo.entity.Task;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
 public class TaskResponse {
     private Long id;
+    private Long parentId;
+    private Long listId; // shared list the task belongs to, if any
+    private String manualRank; // sort=manualRank orders by it; clients may compare ranks as plain strings
     private String description;
     private Priority priority;
     private Status status;
     private LocalDateTime deadline;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version; // also sent as the ETag of single-task responses
+    private RecurrenceRule recurrence;
+    private LocalDateTime occurrence; // set on expanded occurrences of a recurring task
+    @Builder.Default
+    private List<String> tags = List.of();
 
     public static TaskResponse fromEntity(Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
+                .parentId(task.getParentId())
+                .listId(task.getListId())
+                .manualRank(task.getManualRank())
                 .description(task.getDescription())
                 .priority(task.getPriority())
                 .status(task.getStatus())
                 .deadline(task.getDeadline())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
+                .version(task.getVersion())
+                .recurrence(RecurrenceRule.fromEntity(task))
+                .build();
+    }
+
+    public static TaskResponse forOccurrence(Task task, LocalDateTime occurrence, Status status) {
+        return TaskResponse.builder()
+                .id(task.getId())
+                .parentId(task.getParentId())
+                .listId(task.getListId())
+                .manualRank(task.getManualRank())
+                .description(task.getDescription())
+                .priority(task.getPriority())
+                .status(status)
+                .deadline(occurrence)
+                .createdAt(task.getCreatedAt())
+                .updatedAt(task.getUpdatedAt())
+                .recurrence(RecurrenceRule.fromEntity(task))
+                .occurrence(occurrence)
                 .build();
     }
 }
@@ -0,0 +1,31 @@
+package com.example.todo.entity;
+
+import lombok.Getter;
+
+// A member's role on a shared task list. Codes are persisted in task_list_members
+// and ascend with the rights they grant, so a role includes every lower one.
+@Getter
+public enum ListRole {
+    VIEWER(1),
+    EDITOR(2),
+    OWNER(3);
+
+    private final int code;
+
+    ListRole(int code) {
+        this.code = code;
+    }
+
+    public boolean includes(ListRole role) {
+        return code >= role.code;
+    }
+
+    public static ListRole fromCode(int code) {
+        for (ListRole role : values()) {
+            if (role.code == code) {
+                return role;
+            }
+        }
+        throw new IllegalArgumentException("Unknown list role code: " + code);
+    }
+}
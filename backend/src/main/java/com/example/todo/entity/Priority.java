@@ -1,7 +1,27 @@
 package com.example.todo.entity;
 
+import lombok.Getter;
+
+// Codes are persisted (see PriorityConverter) and ascend with decreasing urgency,
+// so sorting on the column sorts by rank. Never renumber an existing constant.
+@Getter
 public enum Priority {
-    URGENT,
-    NORMAL,
-    DO_WHEN_TIME_ALLOWS
+    URGENT(1),
+    NORMAL(2),
+    DO_WHEN_TIME_ALLOWS(3);
+
+    private final int code;
+
+    Priority(int code) {
+        this.code = code;
+    }
+
+    public static Priority fromCode(int code) {
+        for (Priority priority : values()) {
+            if (priority.code == code) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority code: " + code);
+    }
 }
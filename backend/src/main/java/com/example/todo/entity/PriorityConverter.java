@@ -0,0 +1,18 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class PriorityConverter implements AttributeConverter<Priority, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Priority priority) {
+        return priority != null ? priority.getCode() : null;
+    }
+
+    @Override
+    public Priority convertToEntityAttribute(Integer code) {
+        return code != null ? Priority.fromCode(code) : null;
+    }
+}
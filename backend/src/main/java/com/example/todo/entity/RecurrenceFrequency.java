@@ -0,0 +1,30 @@
+package com.example.todo.entity;
+
+import lombok.Getter;
+
+import java.time.temporal.ChronoUnit;
+
+// Codes are persisted (see RecurrenceFrequencyConverter). Never renumber an existing constant.
+@Getter
+public enum RecurrenceFrequency {
+    DAILY(1, ChronoUnit.DAYS),
+    WEEKLY(2, ChronoUnit.WEEKS),
+    MONTHLY(3, ChronoUnit.MONTHS);
+
+    private final int code;
+    private final ChronoUnit unit;
+
+    RecurrenceFrequency(int code, ChronoUnit unit) {
+        this.code = code;
+        this.unit = unit;
+    }
+
+    public static RecurrenceFrequency fromCode(int code) {
+        for (RecurrenceFrequency frequency : values()) {
+            if (frequency.code == code) {
+                return frequency;
+            }
+        }
+        throw new IllegalArgumentException("Unknown recurrence frequency code: " + code);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class RecurrenceFrequencyConverter implements AttributeConverter<RecurrenceFrequency, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(RecurrenceFrequency frequency) {
+        return frequency != null ? frequency.getCode() : null;
+    }
+
+    @Override
+    public RecurrenceFrequency convertToEntityAttribute(Integer code) {
+        return code != null ? RecurrenceFrequency.fromCode(code) : null;
+    }
+}
@@ -1,8 +1,27 @@
 package com.example.todo.entity;
 
+import lombok.Getter;
+
+// Codes are persisted (see StatusConverter). Never renumber an existing constant.
+@Getter
 public enum Status {
-    DONE,
-    IN_PROGRESS,
-    NOT_STARTED,
-    MISSED_DEADLINE
+    DONE(1),
+    IN_PROGRESS(2),
+    NOT_STARTED(3),
+    MISSED_DEADLINE(4);
+
+    private final int code;
+
+    Status(int code) {
+        this.code = code;
+    }
+
+    public static Status fromCode(int code) {
+        for (Status status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status code: " + code);
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class StatusConverter implements AttributeConverter<Status, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Status status) {
+        return status != null ? status.getCode() : null;
+    }
+
+    @Override
+    public Status convertToEntityAttribute(Integer code) {
+        return code != null ? Status.fromCode(code) : null;
+    }
+}
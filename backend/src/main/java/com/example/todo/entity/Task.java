@@ -22,22 +22,56 @@ public class Task {
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
 
+    // Direct parent of a subtask; the full hierarchy lives in task_tree
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Shared list the task belongs to; its tasks keep the list owner as their owner
+    @Column(name = "list_id")
+    private Long listId;
+
+    // Position in the user's manual order; see TaskRank for the key format
+    @Column(name = "manual_rank", nullable = false)
+    private String manualRank;
+
     @Column(nullable = false)
     private String description;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, columnDefinition = "VARCHAR(50)")
+    @Convert(converter = PriorityConverter.class)
+    @Column(nullable = false, columnDefinition = "TINYINT")
     private Priority priority;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false, columnDefinition = "VARCHAR(50)")
+    @Convert(converter = StatusConverter.class)
+    @Column(nullable = false, columnDefinition = "TINYINT")
     private Status status;
 
+    // Deadline of the first occurrence when the task recurs
     private LocalDateTime deadline;
 
+    @Convert(converter = RecurrenceFrequencyConverter.class)
+    @Column(name = "recurrence_frequency", columnDefinition = "TINYINT")
+    private RecurrenceFrequency recurrenceFrequency;
+
+    @Column(name = "recurrence_interval")
+    private Integer recurrenceInterval;
+
+    @Column(name = "recurrence_until")
+    private LocalDateTime recurrenceUntil;
+
+    // Set when the status becomes DONE and cleared when the task is reopened
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Version
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    public boolean isRecurring() {
+        return recurrenceFrequency != null;
+    }
 }
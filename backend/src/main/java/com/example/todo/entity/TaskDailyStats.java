@@ -0,0 +1,47 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Daily counters per user; written with native upserts by TaskStatsService, read by analytics
+@Entity
+@Table(name = "task_daily_stats")
+@IdClass(TaskDailyStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskDailyStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private int created;
+
+    @Column(nullable = false)
+    private int completed;
+
+    @Column(name = "completed_on_time", nullable = false)
+    private int completedOnTime;
+
+    @Column(name = "completed_late", nullable = false)
+    private int completedLate;
+
+    @Column(name = "late_seconds", nullable = false)
+    private long lateSeconds;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate day;
+    }
+}
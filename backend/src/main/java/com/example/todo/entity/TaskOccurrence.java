@@ -0,0 +1,34 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Per-occurrence exception or completion of a recurring task. Occurrences without
+// a row here are derived from the task's recurrence rule and never stored.
+@Entity
+@Table(name = "task_occurrences", uniqueConstraints = @UniqueConstraint(columnNames = { "task_id", "occurrence_at" }))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskOccurrence {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "task_id", nullable = false)
+    private Task task;
+
+    @Column(name = "occurrence_at", nullable = false)
+    private LocalDateTime occurrenceAt;
+
+    @Convert(converter = StatusConverter.class)
+    @Column(nullable = false, columnDefinition = "TINYINT")
+    private Status status;
+
+    @Column(nullable = false)
+    private boolean skipped;
+}
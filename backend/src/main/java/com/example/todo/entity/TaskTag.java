@@ -0,0 +1,34 @@
+package com.example.todo.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+
+// A tag on a task; written by TaskTagService, read when a user's tag index is built
+@Entity
+@Table(name = "task_tags")
+@IdClass(TaskTag.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskTag {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Id
+    private String name;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private String name;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todo.event;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import com.example.todo.entity.Task;
+import lombok.Value;
+
+// Snapshot of a task mutation; holds no entity references so it can outlive the transaction
+@Value
+public class TaskEvent {
+    long taskId;
+    long userId;
+    TaskEventType type;
+    Priority priority;
+    Status status;
+    long occurredAt;
+
+    public static TaskEvent of(Task task, TaskEventType type) {
+        return new TaskEvent(task.getId(), task.getOwner().getId(), type, task.getPriority(), task.getStatus(),
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.todo.event;
+
+import com.example.todo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail of task mutations.
+ *
+ * {@link #publish} only enqueues into a {@link TaskEventRingBuffer}; a single
+ * writer thread drains it into {@code task_events} with JDBC batches. When the
+ * buffer is full the new event is dropped and counted in
+ * {@code tasks.events.dropped} rather than slowing down the request. On
+ * shutdown the writer drains whatever is still buffered before the datasource
+ * goes away.
+ */
+@Component
+public class TaskEventLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventLog.class);
+
+    private static final String INSERT_SQL = "INSERT INTO task_events "
+            + "(task_id, user_id, type, priority, status, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final TaskEventRingBuffer buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private volatile boolean overflowReported;
+    private Thread writer;
+
+    public TaskEventLog(JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            MeterRegistry meterRegistry,
+            @Value("${app.task-events.buffer-capacity}") int bufferCapacity,
+            @Value("${app.task-events.batch-size}") int batchSize,
+            @Value("${app.task-events.flush-interval-ms}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.buffer = new TaskEventRingBuffer(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        this.published = Counter.builder("tasks.events.published").register(meterRegistry);
+        this.dropped = Counter.builder("tasks.events.dropped")
+                .description("Task events discarded because the buffer was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("tasks.events.written").register(meterRegistry);
+        this.failed = Counter.builder("tasks.events.failed")
+                .description("Task events lost to a failed batch insert")
+                .register(meterRegistry);
+        Gauge.builder("tasks.events.buffered", buffer, TaskEventRingBuffer::size).register(meterRegistry);
+    }
+
+    public void publish(TaskEvent event) {
+        if (buffer.offer(event)) {
+            published.increment();
+            return;
+        }
+        dropped.increment();
+        if (!overflowReported) {
+            overflowReported = true;
+            log.warn("Task event buffer full ({} events), dropping events until the writer catches up",
+                    buffer.capacity());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "task-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Shut down with {} task events still buffered", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Below the web server's phases (graceful shutdown, then Tomcat), so the writer drains events from
+    // requests that finish during shutdown and only stops once no request can publish
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<TaskEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained > 0) {
+                // Each event goes to the shard that holds its task
+                shardRouter.partition(batch, TaskEvent::getUserId)
+                        .forEach((shard, events) -> shardRouter.runOn(shard, () -> write(events)));
+                batch.clear();
+            }
+            // Let a partial batch fill up instead of issuing one tiny insert per event
+            if (drained < batchSize && running) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    private void write(List<TaskEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setLong(1, event.getTaskId());
+                ps.setLong(2, event.getUserId());
+                ps.setInt(3, event.getType().getCode());
+                ps.setInt(4, event.getPriority().getCode());
+                ps.setInt(5, event.getStatus().getCode());
+                ps.setTimestamp(6, new Timestamp(event.getOccurredAt()));
+            });
+            written.increment(batch.size());
+            overflowReported = false;
+        } catch (RuntimeException ex) {
+            failed.increment(batch.size());
+            log.error("Could not write {} task events", batch.size(), ex);
+        }
+    }
+}
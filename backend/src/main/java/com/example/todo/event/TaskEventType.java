@@ -0,0 +1,17 @@
+package com.example.todo.event;
+
+import lombok.Getter;
+
+// Codes are persisted in task_events.type. Never renumber an existing constant.
+@Getter
+public enum TaskEventType {
+    CREATED(1),
+    UPDATED(2),
+    DELETED(3);
+
+    private final int code;
+
+    TaskEventType(int code) {
+        this.code = code;
+    }
+}
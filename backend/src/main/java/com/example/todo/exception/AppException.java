@@ -4,7 +4,7 @@ import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
 @Getter
-public class AppException extends RuntimeException {
+public class AppException extends DomainException {
     private final HttpStatus status;
     private final String code;
 
@@ -0,0 +1,14 @@
+package com.example.todo.exception;
+
+/**
+ * Base of the exceptions services throw for expected outcomes (not found, not
+ * allowed, invalid request) that are always turned into an error response.
+ * They capture no stack trace: nobody reads one, and filling it in is most of
+ * the cost of a 4xx when clients or scanners produce them in bulk.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
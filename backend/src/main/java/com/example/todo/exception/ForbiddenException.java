@@ -0,0 +1,12 @@
+package com.example.todo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The resource exists but belongs to another user
+@ResponseStatus(HttpStatus.FORBIDDEN)
+public class ForbiddenException extends DomainException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todo.idempotency;
+
+import lombok.Value;
+
+@Value
+public class Claim {
+
+    public enum Outcome {
+        // First request with this key; run it
+        ACQUIRED,
+        // The first request with this key has not finished yet
+        IN_PROGRESS,
+        // The key was used for a different request
+        MISMATCH,
+        // The key was used for this request before; send its response again
+        REPLAY
+    }
+
+    private static final Claim ACQUIRED = new Claim(Outcome.ACQUIRED, null);
+    private static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null);
+    private static final Claim MISMATCH = new Claim(Outcome.MISMATCH, null);
+
+    Outcome outcome;
+    StoredResponse response;
+
+    public static Claim acquired() {
+        return ACQUIRED;
+    }
+
+    public static Claim inProgress() {
+        return IN_PROGRESS;
+    }
+
+    public static Claim mismatch() {
+        return MISMATCH;
+    }
+
+    public static Claim replay(StoredResponse response) {
+        return new Claim(Outcome.REPLAY, response);
+    }
+
+    // Outcome for a request with the given fingerprint against an existing entry
+    static Claim existing(String storedFingerprint, StoredResponse storedResponse, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            return MISMATCH;
+        }
+        return storedResponse == null ? IN_PROGRESS : replay(storedResponse);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todo.idempotency;
+
+/**
+ * Remembers the outcome of writes sent with an {@code Idempotency-Key}, per
+ * user. {@link #claim} is atomic: of several concurrent requests with the same
+ * key exactly one is {@link Claim.Outcome#ACQUIRED acquired}, and that request
+ * must end in {@link #complete} or {@link #release}.
+ */
+public interface IdempotencyStore {
+
+    Claim claim(long userId, String key, String fingerprint);
+
+    // Stores the response of an acquired claim for replay until the key expires
+    void complete(long userId, String key, String fingerprint, StoredResponse response);
+
+    // Frees an acquired claim without a response, so a retry runs the request again
+    void release(long userId, String key, String fingerprint);
+}
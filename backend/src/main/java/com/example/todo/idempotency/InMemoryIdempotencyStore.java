@@ -0,0 +1,113 @@
+package com.example.todo.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps idempotency keys in this instance only, so a retry that lands on
+ * another instance runs again. Completed entries live for the TTL; an entry
+ * whose first request never finished expires after the lease, so a crashed
+ * request does not block its key for the whole TTL. Bounded by the size of
+ * the stored response bodies.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // Rough per-entry overhead on top of the key and body
+    private static final int ENTRY_WEIGHT = 256;
+
+    private final Cache<Key, Entry> entries;
+
+    @Autowired
+    public InMemoryIdempotencyStore(MeterRegistry meterRegistry,
+            @Value("${app.idempotency.ttl-hours}") long ttlHours,
+            @Value("${app.idempotency.lease-seconds}") long leaseSeconds,
+            @Value("${app.idempotency.max-weight-bytes}") long maxWeightBytes) {
+        this(Duration.ofHours(ttlHours), Duration.ofSeconds(leaseSeconds), maxWeightBytes, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency.keys");
+    }
+
+    InMemoryIdempotencyStore(Duration ttl, Duration lease, long maxWeightBytes, Ticker ticker) {
+        long ttlNanos = ttl.toNanos();
+        long leaseNanos = lease.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, Entry entry) -> ENTRY_WEIGHT + key.getKey().length()
+                        + (entry.getResponse() == null ? 0 : entry.getResponse().getBody().length))
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.getResponse() == null ? leaseNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.getResponse() == null ? leaseNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Claim claim(long userId, String key, String fingerprint) {
+        Entry existing = entries.asMap().putIfAbsent(new Key(userId, key), new Entry(fingerprint, null));
+        return existing == null
+                ? Claim.acquired()
+                : Claim.existing(existing.getFingerprint(), existing.getResponse(), fingerprint);
+    }
+
+    @Override
+    public void complete(long userId, String key, String fingerprint, StoredResponse response) {
+        // Also stores the response when the lease ran out meanwhile, unless another request took the key
+        entries.asMap().compute(new Key(userId, key), (k, entry) -> entry == null || isClaim(entry, fingerprint)
+                ? new Entry(fingerprint, response)
+                : entry);
+    }
+
+    @Override
+    public void release(long userId, String key, String fingerprint) {
+        entries.asMap().computeIfPresent(new Key(userId, key),
+                (k, entry) -> isClaim(entry, fingerprint) ? null : entry);
+    }
+
+    private static boolean isClaim(Entry entry, String fingerprint) {
+        return entry.getResponse() == null && entry.getFingerprint().equals(fingerprint);
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final long userId;
+        private final String key;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final String fingerprint;
+        // null while the first request is running
+        private final StoredResponse response;
+    }
+}
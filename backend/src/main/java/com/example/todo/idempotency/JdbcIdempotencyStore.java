@@ -0,0 +1,125 @@
+package com.example.todo.idempotency;
+
+import com.example.todo.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps idempotency keys in {@code idempotency_keys} on the user's shard, so
+ * every instance sees them. The primary key makes the claiming INSERT atomic;
+ * a key whose row has expired is taken over with an UPDATE that only succeeds
+ * if the row still carries the expiry that was read. Statements run in their
+ * own auto-commit transactions, outside the request's task transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+    private static final int CLAIM_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+            @Value("${app.idempotency.ttl-hours}") long ttlHours,
+            @Value("${app.idempotency.lease-seconds}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Override
+    public Claim claim(long userId, String key, String fingerprint) {
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idem_key, fingerprint, expires_at) "
+                        + "VALUES (?, ?, ?, ?)", userId, key, fingerprint, Timestamp.valueOf(now.plus(lease)));
+                return Claim.acquired();
+            } catch (DuplicateKeyException ex) {
+                // Someone holds the key; decide from their row below
+            }
+
+            List<Row> rows = jdbcTemplate.query("SELECT fingerprint, response_status, response_content_type, "
+                    + "response_location, response_etag, response_body, expires_at FROM idempotency_keys "
+                    + "WHERE user_id = ? AND idem_key = ?", (rs, rowNum) -> new Row(
+                    rs.getString("fingerprint"),
+                    rs.getObject("response_status") == null ? null : new StoredResponse(
+                            rs.getInt("response_status"),
+                            rs.getString("response_content_type"),
+                            rs.getString("response_location"),
+                            rs.getString("response_etag"),
+                            rs.getBytes("response_body")),
+                    rs.getTimestamp("expires_at")), userId, key);
+            if (rows.isEmpty()) {
+                // Released or purged since the INSERT failed
+                continue;
+            }
+            Row row = rows.get(0);
+            if (row.expiresAt.toLocalDateTime().isAfter(now)) {
+                return Claim.existing(row.fingerprint, row.response, fingerprint);
+            }
+            int taken = jdbcTemplate.update("UPDATE idempotency_keys SET fingerprint = ?, response_status = NULL, "
+                    + "response_content_type = NULL, response_location = NULL, response_etag = NULL, "
+                    + "response_body = NULL, expires_at = ? WHERE user_id = ? AND idem_key = ? AND expires_at = ?",
+                    fingerprint, Timestamp.valueOf(now.plus(lease)), userId, key, row.expiresAt);
+            if (taken == 1) {
+                return Claim.acquired();
+            }
+        }
+        // Lost every race for the key; the winner is still running
+        return Claim.inProgress();
+    }
+
+    @Override
+    public void complete(long userId, String key, String fingerprint, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response_status = ?, response_content_type = ?, "
+                + "response_location = ?, response_etag = ?, response_body = ?, expires_at = ? "
+                + "WHERE user_id = ? AND idem_key = ? AND fingerprint = ? AND response_status IS NULL",
+                response.getStatus(), response.getContentType(), response.getLocation(), response.getETag(),
+                response.getBody(), Timestamp.valueOf(LocalDateTime.now().plus(ttl)), userId, key, fingerprint);
+    }
+
+    @Override
+    public void release(long userId, String key, String fingerprint) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ? AND idem_key = ? AND fingerprint = ? "
+                + "AND response_status IS NULL", userId, key, fingerprint);
+    }
+
+    // Expired rows are never read back as valid, so purging is only about table size
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms}")
+    public void purgeExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (String shard : shardRouter.shards()) {
+            int purged = shardRouter.callOn(shard,
+                    () -> jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", now));
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys on shard {}", purged, shard);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Row {
+        private final String fingerprint;
+        private final StoredResponse response;
+        private final Timestamp expiresAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.todo.idempotency;
+
+import lombok.Value;
+
+@Value
+public class StoredResponse {
+    int status;
+    String contentType;
+    String location;
+    String eTag;
+    byte[] body;
+}
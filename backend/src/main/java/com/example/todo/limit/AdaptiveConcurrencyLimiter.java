@@ -0,0 +1,111 @@
+package com.example.todo.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit derived from observed latency, after the gradient
+ * algorithm of Netflix's concurrency-limits.
+ *
+ * A slow moving average of request latency is the baseline. Each completed
+ * request compares its own latency with that baseline: while latency stays
+ * within {@code rttTolerance} times the baseline the limit grows by about
+ * the square root of itself, and once requests start queueing (on the
+ * connection pool, on MySQL) it shrinks in proportion to the slowdown.
+ * The baseline drifts down again after a sustained slowdown, so the limit
+ * recovers when the backend does.
+ *
+ * The limit is only raised while at least half of it is in use, so an idle
+ * service does not end up with a limit it never tested. Samples arriving
+ * while another thread updates the limit are skipped rather than waited for.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority {
+        // Counted against the full limit
+        HIGH,
+        // Leaves the reserved share of the limit to HIGH
+        NORMAL
+    }
+
+    private static final double SMOOTHING = 0.2;
+    private static final int BASELINE_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double reservedShare;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private volatile double limit;
+    private double baselineNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+            double reservedShare) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.reservedShare = reservedShare;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire(Priority priority) {
+        int cap = capacity(priority);
+        while (true) {
+            int current = inflight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // rttNanos is the time the acquired request took, or 0 to release without a latency sample;
+    // inflight is read before this request is released
+    public void release(long rttNanos) {
+        int current = inflight.getAndDecrement();
+        if (rttNanos > 0 && updateLock.tryLock()) {
+            try {
+                update(rttNanos, current);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    int capacity(Priority priority) {
+        int full = (int) limit;
+        return priority == Priority.HIGH ? full : Math.max(1, (int) (full * (1 - reservedShare)));
+    }
+
+    private void update(long rttNanos, int inflightAtCompletion) {
+        samples++;
+        double weight = 1.0 / Math.min(samples, BASELINE_WINDOW);
+        baselineNanos = baselineNanos * (1 - weight) + rttNanos * weight;
+        // After a long slowdown the baseline has absorbed it; let it fall back so the limit can recover
+        if (baselineNanos > rttTolerance * rttNanos) {
+            baselineNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (inflightAtCompletion < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * baselineNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
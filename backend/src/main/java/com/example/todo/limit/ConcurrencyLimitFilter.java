@@ -0,0 +1,116 @@
+package com.example.todo.limit;
+
+import com.example.todo.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds load once the number of requests in progress reaches the adaptive
+ * limit, answering 503 right away instead of letting requests pile up on
+ * worker threads and the connection pool.
+ *
+ * Runs first in the chain so a rejected request costs neither JWT
+ * verification nor a user lookup. Health checks are never limited or
+ * counted. Authentication requests may use the whole limit, while other
+ * requests leave {@code app.concurrency-limit.reserved-share} of it free
+ * for them, so users can still log in while task traffic is being shed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedHigh;
+    private final Counter rejectedNormal;
+
+    @Autowired
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${app.concurrency-limit.initial-limit}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit}") int maxLimit,
+            @Value("${app.concurrency-limit.rtt-tolerance}") double rttTolerance,
+            @Value("${app.concurrency-limit.reserved-share}") double reservedShare) {
+        this(new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, rttTolerance, reservedShare),
+                objectMapper, meterRegistry);
+    }
+
+    ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .description("Requests counted against the concurrency limit")
+                .register(meterRegistry);
+        this.rejectedHigh = rejected(meterRegistry, AdaptiveConcurrencyLimiter.Priority.HIGH);
+        this.rejectedNormal = rejected(meterRegistry, AdaptiveConcurrencyLimiter.Priority.NORMAL);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        if (path.startsWith("/actuator/health")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveConcurrencyLimiter.Priority priority = priorityOf(path);
+        if (!limiter.tryAcquire(priority)) {
+            (priority == AdaptiveConcurrencyLimiter.Priority.HIGH ? rejectedHigh : rejectedNormal).increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Logins hash passwords and OAuth callbacks wait on the provider; their latency says nothing
+            // about queueing here, and a slow provider must not shrink the limit for task traffic
+            limiter.release(priority == AdaptiveConcurrencyLimiter.Priority.HIGH ? 0 : System.nanoTime() - start);
+        }
+    }
+
+    static AdaptiveConcurrencyLimiter.Priority priorityOf(String path) {
+        return path.startsWith("/api/auth/") || path.startsWith("/oauth2/") || path.startsWith("/login/")
+                ? AdaptiveConcurrencyLimiter.Priority.HIGH
+                : AdaptiveConcurrencyLimiter.Priority.NORMAL;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("OVERLOADED",
+                "Server is busy, please retry", null, LocalDateTime.now()));
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter.Priority priority) {
+        return Counter.builder("http.server.concurrency.rejected")
+                .description("Requests shed with 503 by the concurrency limit")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
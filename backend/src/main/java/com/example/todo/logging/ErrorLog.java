@@ -0,0 +1,228 @@
+package com.example.todo.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs unexpected errors off the request thread, collapsing repeats.
+ *
+ * {@link #report} groups errors by signature: exception type plus the frame
+ * that threw it. The first error of a signature in each window is queued with
+ * its stack trace; repeats within the window are only counted, and a writer
+ * thread logs one summary line per signature when the window closes. At most
+ * {@code app.error-log.max-traces-per-second} traces are queued overall, and
+ * when the queue is full reports are dropped and counted instead of blocking
+ * the request, so an error storm costs a map lookup per request rather than
+ * a stack trace written to disk.
+ */
+@Component
+public class ErrorLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorLog.class);
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
+    // Signatures come from code locations, so this is only a guard against something pathological
+    private static final int MAX_SIGNATURES = 10_000;
+
+    private final BlockingQueue<Report> queue;
+    private final Map<String, Signature> signatures = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final int maxTracesPerSecond;
+    private final LongSupplier clock;
+
+    private final AtomicLong traceSecond = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger tracesThisSecond = new AtomicInteger();
+
+    private final Counter reported;
+    private final Counter suppressed;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public ErrorLog(MeterRegistry meterRegistry,
+            @Value("${app.error-log.window-seconds}") long windowSeconds,
+            @Value("${app.error-log.max-traces-per-second}") int maxTracesPerSecond,
+            @Value("${app.error-log.queue-capacity}") int queueCapacity) {
+        this(meterRegistry, TimeUnit.SECONDS.toNanos(windowSeconds), maxTracesPerSecond, queueCapacity,
+                System::nanoTime);
+    }
+
+    ErrorLog(MeterRegistry meterRegistry, long windowNanos, int maxTracesPerSecond, int queueCapacity,
+            LongSupplier clock) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.windowNanos = windowNanos;
+        this.maxTracesPerSecond = maxTracesPerSecond;
+        this.clock = clock;
+        this.reported = Counter.builder("errors.reported")
+                .description("Unexpected errors passed to the error log")
+                .register(meterRegistry);
+        this.suppressed = Counter.builder("errors.suppressed")
+                .description("Errors counted but not logged because their signature was already logged recently")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("errors.dropped")
+                .description("Errors not logged because the trace rate limit or the queue was full")
+                .register(meterRegistry);
+    }
+
+    public void report(String context, Throwable error) {
+        reported.increment();
+        long now = clock.getAsLong();
+        String key = signature(error);
+        Signature signature = signatures.get(key);
+        if (signature == null) {
+            if (signatures.size() >= MAX_SIGNATURES) {
+                dropped.increment();
+                return;
+            }
+            signature = signatures.computeIfAbsent(key, k -> new Signature(now - windowNanos));
+        }
+        if (!signature.open(now, windowNanos)) {
+            signature.repeats.incrementAndGet();
+            suppressed.increment();
+            return;
+        }
+        if (!acquireTrace(now) || !queue.offer(new Report(context, error, null, 0))) {
+            dropped.increment();
+        }
+    }
+
+    private boolean acquireTrace(long now) {
+        long second = TimeUnit.NANOSECONDS.toSeconds(now);
+        long current = traceSecond.get();
+        if (current != second && traceSecond.compareAndSet(current, second)) {
+            tracesThisSecond.set(0);
+        }
+        return tracesThisSecond.incrementAndGet() <= maxTracesPerSecond;
+    }
+
+    static String signature(Throwable error) {
+        StackTraceElement[] trace = error.getStackTrace();
+        return trace.length == 0
+                ? error.getClass().getName()
+                : error.getClass().getName() + "@" + trace[0].getClassName() + "." + trace[0].getMethodName() + ":"
+                        + trace[0].getLineNumber();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "error-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Below the web server's phases (graceful shutdown, then Tomcat), so errors of requests that
+    // finish during shutdown are still written; the writer stops once no request can report one
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        long pollNanos = Math.min(windowNanos, TimeUnit.SECONDS.toNanos(1));
+        while (running || !queue.isEmpty()) {
+            try {
+                Report report = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (report != null) {
+                    write(report);
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    List<Report> rest = new ArrayList<>();
+                    queue.drainTo(rest);
+                    rest.forEach(this::write);
+                    break;
+                }
+            }
+            flushRepeats(clock.getAsLong());
+        }
+        flushRepeats(Long.MAX_VALUE);
+    }
+
+    // One summary line per signature whose window has closed with repeats
+    void flushRepeats(long now) {
+        for (Iterator<Map.Entry<String, Signature>> it = signatures.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, Signature> entry = it.next();
+            Signature signature = entry.getValue();
+            if (now - signature.windowStart.get() < windowNanos) {
+                continue;
+            }
+            int repeats = signature.repeats.getAndSet(0);
+            if (repeats > 0) {
+                write(new Report(null, null, entry.getKey(), repeats));
+            } else {
+                // Quiet for a whole window: forget it so the map only holds active signatures
+                it.remove();
+            }
+        }
+    }
+
+    private void write(Report report) {
+        if (report.error != null) {
+            log.error("Unexpected error in {}", report.context, report.error);
+        } else {
+            log.error("{} occurred {} more times without a trace", report.signature, report.repeats);
+        }
+    }
+
+    // Either an error with its trace or a count of untraced repeats of a signature
+    @RequiredArgsConstructor
+    private static final class Report {
+        private final String context;
+        private final Throwable error;
+        private final String signature;
+        private final int repeats;
+    }
+
+    private static final class Signature {
+        private final AtomicLong windowStart;
+        private final AtomicInteger repeats = new AtomicInteger();
+
+        Signature(long windowStart) {
+            this.windowStart = new AtomicLong(windowStart);
+        }
+
+        // Starts a new window if the last one has closed; only one caller wins
+        boolean open(long now, long windowNanos) {
+            long start = windowStart.get();
+            return now - start >= windowNanos && windowStart.compareAndSet(start, now);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.todo.reminder;
+
+import lombok.Value;
+import java.time.LocalDateTime;
+
+@Value
+public class DeadlineReminder {
+    long taskId;
+    long userId;
+    LocalDateTime deadline;
+}
@@ -0,0 +1,230 @@
+package com.example.todo.reminder;
+
+import com.example.todo.entity.Status;
+import com.example.todo.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Sends a reminder a fixed lead time before each open task deadline.
+ *
+ * Upcoming deadlines are read once at startup with a streaming range scan over
+ * {@code idx_tasks_deadline}; afterwards {@code TaskService} keeps the
+ * {@link TimingWheel} current on every create, update and delete, so the
+ * database is never polled. A ticker thread advances the wheel, drops due
+ * reminders whose task has been completed in bulk meanwhile, and hands the
+ * rest to the {@link ReminderSink}.
+ */
+@Component
+public class DeadlineReminderService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminderService.class);
+
+    private static final String UPCOMING_SQL = "SELECT id, user_id, deadline FROM tasks "
+            + "WHERE deadline > ? AND status <> ? AND recurrence_frequency IS NULL";
+
+    private static final int UPCOMING_FETCH_SIZE = 1000;
+    private static final int RECHECK_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final ReminderSink sink;
+    private final Clock clock;
+    private final long tickMillis;
+    private final long leadMillis;
+    private final long epochMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel<DeadlineReminder> wheel;
+    private final Counter delivered;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    @Autowired
+    public DeadlineReminderService(JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            ReminderSink sink,
+            MeterRegistry meterRegistry,
+            @Value("${app.reminders.tick-ms}") long tickMillis,
+            @Value("${app.reminders.lead-time-minutes}") long leadTimeMinutes) {
+        this(jdbcTemplate, shardRouter, sink, meterRegistry, tickMillis, leadTimeMinutes, Clock.systemDefaultZone());
+    }
+
+    DeadlineReminderService(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, ReminderSink sink,
+            MeterRegistry meterRegistry, long tickMillis, long leadTimeMinutes, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.sink = sink;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.leadMillis = TimeUnit.MINUTES.toMillis(leadTimeMinutes);
+        this.epochMillis = clock.millis();
+        this.wheel = new TimingWheel<>(0);
+
+        this.delivered = Counter.builder("reminders.delivered").register(meterRegistry);
+        Gauge.builder("reminders.pending", wheel, TimingWheel::size).register(meterRegistry);
+    }
+
+    public void schedule(long taskId, long userId, LocalDateTime deadline) {
+        DeadlineReminder reminder = new DeadlineReminder(taskId, userId, deadline);
+        long deadlineMillis = deadline.atZone(clock.getZone()).toInstant().toEpochMilli();
+        long fireAtMillis = deadlineMillis - leadMillis;
+        long tick = Math.floorDiv(fireAtMillis - epochMillis + tickMillis - 1, tickMillis);
+
+        boolean scheduled;
+        lock.lock();
+        try {
+            scheduled = wheel.schedule(taskId, reminder, tick);
+        } finally {
+            lock.unlock();
+        }
+        // Already inside the lead time but not yet overdue: remind right away
+        if (!scheduled && deadlineMillis > clock.millis()) {
+            deliver(reminder);
+        }
+    }
+
+    public void cancel(long taskId) {
+        lock.lock();
+        try {
+            wheel.cancel(taskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            loadUpcoming();
+        } catch (RuntimeException ex) {
+            log.error("Could not load upcoming deadlines; reminders only cover tasks changed from now on", ex);
+        }
+        running = true;
+        ticker = new Thread(this::tickLoop, "deadline-reminder-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void advance() {
+        long targetTick = (clock.millis() - epochMillis) / tickMillis;
+        List<DeadlineReminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            wheel.advanceTo(targetTick, due::add);
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        Set<Long> open = new HashSet<>();
+        shardRouter.partition(due, DeadlineReminder::getUserId)
+                .forEach((shard, reminders) -> open.addAll(shardRouter.callOn(shard, () -> stillOpen(reminders))));
+        for (DeadlineReminder reminder : due) {
+            if (open.contains(reminder.getTaskId())) {
+                deliver(reminder);
+            }
+        }
+    }
+
+    // Bulk updates change status without going through TaskService per task, so re-check before sending.
+    // Deadlines cluster on the hour, so one tick can hold far more ids than fit in a single statement.
+    private Set<Long> stillOpen(List<DeadlineReminder> due) {
+        Set<Long> open = new HashSet<>();
+        for (int from = 0; from < due.size(); from += RECHECK_CHUNK) {
+            open.addAll(stillOpenChunk(due.subList(from, Math.min(from + RECHECK_CHUNK, due.size()))));
+        }
+        return open;
+    }
+
+    private Set<Long> stillOpenChunk(List<DeadlineReminder> due) {
+        StringJoiner placeholders = new StringJoiner(",", "SELECT id FROM tasks WHERE status <> ? AND id IN (", ")");
+        List<Object> args = new ArrayList<>(due.size() + 1);
+        args.add(Status.DONE.getCode());
+        for (DeadlineReminder reminder : due) {
+            placeholders.add("?");
+            args.add(reminder.getTaskId());
+        }
+        try {
+            return new HashSet<>(jdbcTemplate.queryForList(placeholders.toString(), Long.class, args.toArray()));
+        } catch (RuntimeException ex) {
+            log.warn("Could not re-check {} due reminders; sending them anyway", due.size(), ex);
+            return due.stream().map(DeadlineReminder::getTaskId).collect(Collectors.toSet());
+        }
+    }
+
+    private void loadUpcoming() {
+        long start = System.nanoTime();
+        for (String shard : shardRouter.shards()) {
+            shardRouter.runOn(shard, this::loadUpcomingFromCurrentShard);
+        }
+        log.info("Loaded {} upcoming deadlines in {} ms", wheel.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void loadUpcomingFromCurrentShard() {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPCOMING_SQL);
+            // Connector/J streams rows only for MIN_VALUE, which other drivers reject as negative
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : UPCOMING_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now(clock)));
+            ps.setInt(2, Status.DONE.getCode());
+            return ps;
+        }, rs -> {
+            schedule(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime());
+        });
+    }
+
+    private void tickLoop() {
+        while (running) {
+            advance();
+            long sinceEpoch = clock.millis() - epochMillis;
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(tickMillis - sinceEpoch % tickMillis));
+        }
+    }
+
+    private void deliver(DeadlineReminder reminder) {
+        try {
+            sink.deliver(reminder);
+            delivered.increment();
+        } catch (RuntimeException ex) {
+            log.error("Could not deliver reminder for task {}", reminder.getTaskId(), ex);
+        }
+    }
+}
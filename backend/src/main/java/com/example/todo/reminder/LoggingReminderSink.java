@@ -0,0 +1,18 @@
+package com.example.todo.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Default sink; a real notification channel can replace it by registering a @Primary ReminderSink
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void deliver(DeadlineReminder reminder) {
+        log.info("Deadline reminder: task {} of user {} is due at {}",
+                reminder.getTaskId(), reminder.getUserId(), reminder.getDeadline());
+    }
+}
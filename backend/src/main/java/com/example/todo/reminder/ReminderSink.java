@@ -0,0 +1,9 @@
+package com.example.todo.reminder;
+
+/**
+ * Delivery channel for due deadline reminders. Called from the reminder
+ * ticker thread, so implementations should hand off slow work.
+ */
+public interface ReminderSink {
+    void deliver(DeadlineReminder reminder);
+}
@@ -0,0 +1,172 @@
+package com.example.todo.reminder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (in the style of the Linux kernel timer wheel).
+ *
+ * Level 0 has 256 one-tick slots; levels 1-3 have 64 slots each covering 64
+ * times the span of a slot below. Entries are placed by their expiration tick
+ * and cascade one level down whenever the level below wraps, so scheduling
+ * and cancelling are O(1) and advancing costs O(1) per tick plus the entries
+ * that actually move. Entries beyond the top level (about 2^26 ticks) wait in
+ * an overflow list that is redistributed once per top-level rotation.
+ *
+ * Not thread-safe; callers serialize access.
+ */
+public class TimingWheel<T> {
+
+    private static final int LEVEL0_BITS = 8;
+    private static final int LEVEL_BITS = 6;
+    private static final int LEVELS = 4;
+    private static final int[] SHIFT = { 0, LEVEL0_BITS, LEVEL0_BITS + LEVEL_BITS, LEVEL0_BITS + 2 * LEVEL_BITS };
+    private static final int[] MASK = { (1 << LEVEL0_BITS) - 1, (1 << LEVEL_BITS) - 1, (1 << LEVEL_BITS) - 1,
+            (1 << LEVEL_BITS) - 1 };
+    private static final long SPAN = 1L << (LEVEL0_BITS + 3 * LEVEL_BITS);
+
+    private final Bucket<T>[][] levels;
+    private final Bucket<T> overflow = new Bucket<>();
+    private final Map<Long, Node<T>> index = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+        this.levels = new Bucket[LEVELS][];
+        for (int level = 0; level < LEVELS; level++) {
+            levels[level] = new Bucket[MASK[level] + 1];
+            for (int slot = 0; slot <= MASK[level]; slot++) {
+                levels[level][slot] = new Bucket<>();
+            }
+        }
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Schedules or replaces the entry for {@code key}. Returns false, without
+     * scheduling, when the expiration tick has already been reached.
+     */
+    public boolean schedule(long key, T payload, long expirationTick) {
+        cancel(key);
+        if (expirationTick <= currentTick) {
+            return false;
+        }
+        Node<T> node = new Node<>(key, payload, expirationTick);
+        index.put(key, node);
+        place(node);
+        return true;
+    }
+
+    public boolean cancel(long key) {
+        Node<T> node = index.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.bucket.unlink(node);
+        return true;
+    }
+
+    public void advanceTo(long tick, Consumer<T> expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            int slot = (int) (currentTick & MASK[0]);
+            if (slot == 0 && cascade(1) == 0 && cascade(2) == 0 && cascade(3) == 0) {
+                redistribute(overflow);
+            }
+            Bucket<T> bucket = levels[0][slot];
+            for (Node<T> node = bucket.head; node != null; node = bucket.head) {
+                bucket.unlink(node);
+                index.remove(node.key);
+                expired.accept(node.payload);
+            }
+        }
+    }
+
+    private int cascade(int level) {
+        int slot = (int) ((currentTick >> SHIFT[level]) & MASK[level]);
+        redistribute(levels[level][slot]);
+        return slot;
+    }
+
+    private void redistribute(Bucket<T> bucket) {
+        // Detach first: overflow entries that are still out of range go back into the same bucket
+        Node<T> node = bucket.head;
+        bucket.head = null;
+        bucket.tail = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<T> node) {
+        long delta = node.expirationTick - currentTick;
+        if (delta >= SPAN) {
+            overflow.append(node);
+            return;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << SHIFT[level + 1]) {
+            level++;
+        }
+        levels[level][(int) ((node.expirationTick >> SHIFT[level]) & MASK[level])].append(node);
+    }
+
+    private static final class Node<T> {
+        final long key;
+        final T payload;
+        final long expirationTick;
+        Node<T> prev;
+        Node<T> next;
+        Bucket<T> bucket;
+
+        Node(long key, T payload, long expirationTick) {
+            this.key = key;
+            this.payload = payload;
+            this.expirationTick = expirationTick;
+        }
+    }
+
+    private static final class Bucket<T> {
+        Node<T> head;
+        Node<T> tail;
+
+        void append(Node<T> node) {
+            node.bucket = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void unlink(Node<T> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            node.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.OAuthCredential;
+import com.example.todo.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface OAuthCredentialRepository extends JpaRepository<OAuthCredential, Long> {
+
+    // Resolved through the UNIQUE(provider, provider_id) index, no credentials collection walk
+    @Query("SELECT c.user FROM OAuthCredential c WHERE c.provider = :provider AND c.providerId = :providerId")
+    Optional<User> findUserByProviderAndProviderId(@Param("provider") String provider,
+            @Param("providerId") String providerId);
+}
@@ -0,0 +1,64 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskDailyStatsRepository extends JpaRepository<TaskDailyStats, TaskDailyStats.Key> {
+
+    String INSERT_FROM_TASKS = "INSERT INTO task_daily_stats "
+            + "(user_id, day, created, completed, completed_on_time, completed_late, late_seconds) "
+            + "SELECT user_id, day, SUM(created), SUM(completed), SUM(on_time), SUM(late), SUM(late_seconds) FROM ("
+            + "SELECT user_id, DATE(created_at) AS day, 1 AS created, 0 AS completed, 0 AS on_time, 0 AS late, "
+            + "0 AS late_seconds FROM tasks WHERE ";
+    String COMPLETIONS = " UNION ALL SELECT user_id, DATE(completed_at), 0, 1, "
+            + "CASE WHEN completed_at <= deadline THEN 1 ELSE 0 END, "
+            + "CASE WHEN completed_at > deadline THEN 1 ELSE 0 END, "
+            + "CASE WHEN completed_at > deadline THEN TIMESTAMPDIFF(SECOND, deadline, completed_at) ELSE 0 END "
+            + "FROM tasks WHERE ";
+    String GROUP = ") contributions GROUP BY user_id, day";
+
+    List<TaskDailyStats> findByUserIdAndDayBetweenOrderByDay(Long userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_daily_stats "
+            + "(user_id, day, created, completed, completed_on_time, completed_late, late_seconds) "
+            + "VALUES (:userId, :day, :created, :completed, :onTime, :late, :lateSeconds) "
+            + "ON DUPLICATE KEY UPDATE created = created + VALUES(created), "
+            + "completed = completed + VALUES(completed), "
+            + "completed_on_time = completed_on_time + VALUES(completed_on_time), "
+            + "completed_late = completed_late + VALUES(completed_late), "
+            + "late_seconds = late_seconds + VALUES(late_seconds)", nativeQuery = true)
+    int increment(@Param("userId") Long userId,
+            @Param("day") LocalDate day,
+            @Param("created") int created,
+            @Param("completed") int completed,
+            @Param("onTime") int onTime,
+            @Param("late") int late,
+            @Param("lateSeconds") long lateSeconds);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_daily_stats WHERE day >= :from AND day < :to", nativeQuery = true)
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = INSERT_FROM_TASKS + "created_at >= :from AND created_at < :to"
+            + COMPLETIONS + "completed_at >= :from AND completed_at < :to" + GROUP, nativeQuery = true)
+    int insertDaysFromTasks(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_daily_stats WHERE user_id = :userId", nativeQuery = true)
+    int deleteUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = INSERT_FROM_TASKS + "user_id = :userId AND created_at IS NOT NULL"
+            + COMPLETIONS + "user_id = :userId AND completed_at IS NOT NULL" + GROUP, nativeQuery = true)
+    int insertUserFromTasks(@Param("userId") Long userId);
+}
@@ -0,0 +1,18 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskOccurrence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskOccurrenceRepository extends JpaRepository<TaskOccurrence, Long> {
+
+    List<TaskOccurrence> findByTaskIdInAndOccurrenceAtBetween(Collection<Long> taskIds,
+            LocalDateTime from, LocalDateTime to);
+
+    Optional<TaskOccurrence> findByTaskIdAndOccurrenceAt(Long taskId, LocalDateTime occurrenceAt);
+}
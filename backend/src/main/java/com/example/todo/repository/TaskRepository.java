@@ -3,19 +3,39 @@ package com.example.todo.repository;
 import com.example.todo.entity.Priority;
 import com.example.todo.entity.Status;
 import com.example.todo.entity.Task;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
 
     Page<Task> findByOwnerId(Long userId, Pageable pageable);
 
+    // Row locks in id order, so that two callers locking overlapping sets cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<Task> lockAll(@Param("ids") Collection<Long> ids);
+
+    // Tasks of a shared list, from idx_tasks_list
+    Page<Task> findByListId(Long listId, Pageable pageable);
+
+    // Takes the tasks of a deleted list back into their owner's own tasks; listId is part of
+    // the response, so their versions (ETags) change
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.listId = NULL, t.updatedAt = :now, t.version = t.version + 1 " +
+            "WHERE t.listId = :listId")
+    int detachList(@Param("listId") Long listId, @Param("now") java.time.LocalDateTime now);
+
     @Query("SELECT t FROM Task t WHERE t.owner.id = :userId " +
             "AND (:priority IS NULL OR t.priority = :priority) " +
             "AND (:status IS NULL OR t.status = :status) " +
@@ -27,4 +47,116 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
             @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
             @Param("deadlineTo") java.time.LocalDateTime deadlineTo,
             Pageable pageable);
+
+    // findFiltered restricted to the ids a tag query resolved to
+    @Query("SELECT t FROM Task t WHERE t.owner.id = :userId AND t.id IN :ids " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (cast(:deadlineFrom as timestamp) IS NULL OR t.deadline >= :deadlineFrom) " +
+            "AND (cast(:deadlineTo as timestamp) IS NULL OR t.deadline <= :deadlineTo)")
+    Page<Task> findFilteredIn(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("status") Status status,
+            @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
+            @Param("deadlineTo") java.time.LocalDateTime deadlineTo,
+            @Param("ids") Collection<Long> ids,
+            Pageable pageable);
+
+    // findFiltered without the ids of excluded tags, for tag queries with only NOT terms
+    @Query("SELECT t FROM Task t WHERE t.owner.id = :userId AND t.id NOT IN :ids " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (cast(:deadlineFrom as timestamp) IS NULL OR t.deadline >= :deadlineFrom) " +
+            "AND (cast(:deadlineTo as timestamp) IS NULL OR t.deadline <= :deadlineTo)")
+    Page<Task> findFilteredNotIn(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("status") Status status,
+            @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
+            @Param("deadlineTo") java.time.LocalDateTime deadlineTo,
+            @Param("ids") Collection<Long> ids,
+            Pageable pageable);
+
+    // Ends and neighbours in the manual order, each one probe of idx_tasks_user_rank
+    @Query("SELECT MAX(t.manualRank) FROM Task t WHERE t.owner.id = :userId")
+    String findLastRank(@Param("userId") Long userId);
+
+    @Query("SELECT MIN(t.manualRank) FROM Task t WHERE t.owner.id = :userId AND t.manualRank > :rank " +
+            "AND t.id <> :excludeId")
+    String findRankAfter(@Param("userId") Long userId, @Param("rank") String rank,
+            @Param("excludeId") Long excludeId);
+
+    @Query("SELECT MAX(t.manualRank) FROM Task t WHERE t.owner.id = :userId AND t.manualRank < :rank " +
+            "AND t.id <> :excludeId")
+    String findRankBefore(@Param("userId") Long userId, @Param("rank") String rank,
+            @Param("excludeId") Long excludeId);
+
+    // The task and everything below it, shallowest first, from one range scan of the closure table
+    @Query("SELECT t FROM Task t JOIN TaskTreePath p ON p.descendantId = t.id " +
+            "WHERE p.ancestorId = :rootId ORDER BY p.depth, t.id")
+    List<Task> findSubtree(@Param("rootId") Long rootId);
+
+    // Removal of a subtree below its root; closure rows and occurrence overrides cascade
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (SELECT descendant_id FROM "
+            + "(SELECT descendant_id FROM task_tree WHERE ancestor_id = :rootId AND depth > 0) below)",
+            nativeQuery = true)
+    int deleteDescendants(@Param("rootId") Long rootId);
+
+    // findFiltered without recurring series, whose occurrences are expanded in memory instead
+    @Query("SELECT t FROM Task t WHERE t.owner.id = :userId AND t.recurrenceFrequency IS NULL " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND t.deadline >= :deadlineFrom AND t.deadline <= :deadlineTo")
+    Page<Task> findOneOffInWindow(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("status") Status status,
+            @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
+            @Param("deadlineTo") java.time.LocalDateTime deadlineTo,
+            Pageable pageable);
+
+    // Series with at least one possible occurrence in the window
+    @Query("SELECT t FROM Task t WHERE t.owner.id = :userId AND t.recurrenceFrequency IS NOT NULL " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND t.deadline <= :deadlineTo " +
+            "AND (t.recurrenceUntil IS NULL OR t.recurrenceUntil >= :deadlineFrom)")
+    List<Task> findRecurringInWindow(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
+            @Param("deadlineTo") java.time.LocalDateTime deadlineTo);
+
+    // Set-based findFiltered update. Mirrors updateTask: updatedAt and version are bumped only on
+    // rows that change, and an overdue one-off task that is not being completed becomes MISSED_DEADLINE.
+    // MySQL applies assignments left to right, so completedAt is set while t.status still holds the old value.
+    // The WHERE clause compares against the same computed status, so an overdue task that is already
+    // MISSED_DEADLINE is not rewritten by a non-DONE status.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET " +
+            "t.completedAt = CASE WHEN :newStatus IS NULL THEN t.completedAt " +
+            "WHEN :newStatus <> :done THEN NULL " +
+            "WHEN t.status = :done THEN t.completedAt ELSE :now END, " +
+            "t.priority = CASE WHEN :newPriority IS NULL THEN t.priority ELSE :newPriority END, " +
+            "t.status = CASE WHEN :newStatus IS NULL THEN t.status " +
+            "WHEN :newStatus <> :done AND t.recurrenceFrequency IS NULL AND t.deadline < :now THEN :missed " +
+            "ELSE :newStatus END, " +
+            "t.updatedAt = :now, " +
+            "t.version = t.version + 1 " +
+            "WHERE t.owner.id = :userId " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (cast(:deadlineFrom as timestamp) IS NULL OR t.deadline >= :deadlineFrom) " +
+            "AND (cast(:deadlineTo as timestamp) IS NULL OR t.deadline <= :deadlineTo) " +
+            "AND ((:newPriority IS NOT NULL AND t.priority <> :newPriority) " +
+            "OR (:newStatus IS NOT NULL AND t.status <> CASE " +
+            "WHEN :newStatus <> :done AND t.recurrenceFrequency IS NULL AND t.deadline < :now THEN :missed " +
+            "ELSE :newStatus END))")
+    int bulkUpdateFiltered(@Param("userId") Long userId,
+            @Param("priority") Priority priority,
+            @Param("status") Status status,
+            @Param("deadlineFrom") java.time.LocalDateTime deadlineFrom,
+            @Param("deadlineTo") java.time.LocalDateTime deadlineTo,
+            @Param("newPriority") Priority newPriority,
+            @Param("newStatus") Status newStatus,
+            @Param("done") Status done,
+            @Param("missed") Status missed,
+            @Param("now") java.time.LocalDateTime now);
 }
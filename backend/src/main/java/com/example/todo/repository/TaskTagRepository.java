@@ -0,0 +1,19 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface TaskTagRepository extends JpaRepository<TaskTag, TaskTag.Key> {
+
+    List<TaskTag> findByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
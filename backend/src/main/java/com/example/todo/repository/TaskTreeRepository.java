@@ -0,0 +1,52 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.TaskTreePath;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskTreeRepository extends JpaRepository<TaskTreePath, TaskTreePath.Key> {
+
+    boolean existsByAncestorIdAndDepth(Long ancestorId, int depth);
+
+    // The task and its ancestors, from idx_task_tree_descendant
+    @Query("SELECT p.ancestorId FROM TaskTreePath p WHERE p.descendantId = :taskId ORDER BY p.ancestorId")
+    List<Long> findPathToRoot(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_tree (ancestor_id, descendant_id, depth) VALUES (:taskId, :taskId, 0)",
+            nativeQuery = true)
+    int insertRoot(@Param("taskId") Long taskId);
+
+    // The new task below every ancestor of its parent, plus its own depth-0 row
+    @Modifying
+    @Query(value = "INSERT INTO task_tree (ancestor_id, descendant_id, depth) "
+            + "SELECT p.ancestor_id, t.id, p.depth + 1 FROM task_tree p JOIN tasks t ON t.id = :taskId "
+            + "WHERE p.descendant_id = :parentId "
+            + "UNION ALL SELECT id, id, 0 FROM tasks WHERE id = :taskId", nativeQuery = true)
+    int insertLeaf(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+
+    // Cuts a subtree loose: drops the paths from the task's ancestors into it, keeps the paths inside it.
+    // The derived tables make MySQL materialize the sets before deleting from the same table.
+    @Modifying
+    @Query(value = "DELETE FROM task_tree "
+            + "WHERE descendant_id IN (SELECT descendant_id FROM "
+            + "(SELECT descendant_id FROM task_tree WHERE ancestor_id = :taskId) subtree) "
+            + "AND ancestor_id IN (SELECT ancestor_id FROM "
+            + "(SELECT ancestor_id FROM task_tree WHERE descendant_id = :taskId AND depth > 0) above)",
+            nativeQuery = true)
+    int detachSubtree(@Param("taskId") Long taskId);
+
+    // Hangs a detached subtree below a new parent: every ancestor of the parent times every node of the subtree
+    @Modifying
+    @Query(value = "INSERT INTO task_tree (ancestor_id, descendant_id, depth) "
+            + "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 "
+            + "FROM task_tree above JOIN task_tree below ON below.ancestor_id = :taskId "
+            + "WHERE above.descendant_id = :parentId", nativeQuery = true)
+    int attachSubtree(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+}
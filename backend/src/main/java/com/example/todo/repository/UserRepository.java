@@ -2,7 +2,10 @@ package com.example.todo.repository;
 
 import com.example.todo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +14,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    // Username or email in one round trip; a username match sorts first
+    @Query("SELECT u FROM User u WHERE u.username = :identifier OR u.email = :identifier " +
+            "ORDER BY CASE WHEN u.username = :identifier THEN 0 ELSE 1 END")
+    List<User> findByUsernameOrEmail(@Param("identifier") String identifier);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
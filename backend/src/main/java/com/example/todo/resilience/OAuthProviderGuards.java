@@ -0,0 +1,145 @@
+package com.example.todo.resilience;
+
+import com.example.todo.exception.AppException;
+import com.example.todo.logging.ErrorLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Isolates calls to each OAuth provider behind its own bulkhead and circuit
+ * breaker, so a slow or failing provider can neither hold more than
+ * {@code max-concurrent} request threads nor slow down anything else.
+ *
+ * A call that finds the bulkhead full or the breaker open fails at once
+ * with 503. Timeouts, connection errors and 5xx answers count as failures;
+ * 4xx answers are the caller's fault (an expired code) and count as success.
+ * The 503 for a failed call carries no cause, so the failure itself goes to
+ * the {@link ErrorLog}.
+ */
+@Component
+public class OAuthProviderGuards {
+
+    public static final String GOOGLE = "google";
+    public static final String GITHUB = "github";
+
+    private final Map<String, Guard> guards;
+
+    public OAuthProviderGuards(MeterRegistry meterRegistry,
+            ErrorLog errorLog,
+            @Value("${app.oauth.bulkhead.max-concurrent}") int maxConcurrent,
+            @Value("${app.oauth.circuit-breaker.window-size}") int windowSize,
+            @Value("${app.oauth.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${app.oauth.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${app.oauth.circuit-breaker.slow-call-ms}") long slowCallMillis,
+            @Value("${app.oauth.circuit-breaker.open-ms}") long openMillis,
+            @Value("${app.oauth.circuit-breaker.half-open-probes}") int halfOpenProbes) {
+        Supplier<CircuitBreaker> breaker = () -> new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                TimeUnit.MILLISECONDS.toNanos(slowCallMillis), TimeUnit.MILLISECONDS.toNanos(openMillis),
+                halfOpenProbes, System::nanoTime);
+        this.guards = Map.of(
+                GOOGLE, new Guard(GOOGLE, maxConcurrent, breaker.get(), errorLog, meterRegistry),
+                GITHUB, new Guard(GITHUB, maxConcurrent, breaker.get(), errorLog, meterRegistry));
+    }
+
+    public <T> T call(String provider, Supplier<T> call) {
+        Guard guard = guards.get(provider.toLowerCase(Locale.ROOT));
+        if (guard == null) {
+            throw new AppException("Unsupported provider", HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+        return guard.call(call);
+    }
+
+    public CircuitBreaker.State state(String provider) {
+        return guards.get(provider).breaker.getState();
+    }
+
+    private static final class Guard {
+
+        private final String provider;
+        private final Semaphore bulkhead;
+        private final CircuitBreaker breaker;
+        private final ErrorLog errorLog;
+        private final Counter succeeded;
+        private final Counter failed;
+        private final Counter shortCircuited;
+        private final Counter bulkheadFull;
+
+        Guard(String provider, int maxConcurrent, CircuitBreaker breaker, ErrorLog errorLog,
+                MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.bulkhead = new Semaphore(maxConcurrent);
+            this.breaker = breaker;
+            this.errorLog = errorLog;
+            this.succeeded = outcome(meterRegistry, provider, "success");
+            this.failed = outcome(meterRegistry, provider, "failure");
+            this.shortCircuited = outcome(meterRegistry, provider, "short_circuited");
+            this.bulkheadFull = outcome(meterRegistry, provider, "bulkhead_full");
+            Gauge.builder("oauth.provider.circuit.state", breaker, b -> b.getState().getCode())
+                    .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+            Gauge.builder("oauth.provider.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .description("Free concurrent call slots for the provider")
+                    .tag("provider", provider)
+                    .register(meterRegistry);
+        }
+
+        <T> T call(Supplier<T> call) {
+            if (!bulkhead.tryAcquire()) {
+                bulkheadFull.increment();
+                throw new AppException("Too many sign-ins with " + provider + " in progress, please retry",
+                        HttpStatus.SERVICE_UNAVAILABLE, "PROVIDER_BUSY");
+            }
+            try {
+                if (!breaker.tryAcquirePermission()) {
+                    shortCircuited.increment();
+                    throw new AppException("Sign-in with " + provider + " is temporarily unavailable",
+                            HttpStatus.SERVICE_UNAVAILABLE, "PROVIDER_UNAVAILABLE");
+                }
+                long start = System.nanoTime();
+                try {
+                    T result = call.get();
+                    breaker.onSuccess(System.nanoTime() - start);
+                    succeeded.increment();
+                    return result;
+                } catch (HttpClientErrorException ex) {
+                    breaker.onSuccess(System.nanoTime() - start);
+                    succeeded.increment();
+                    throw ex;
+                } catch (RestClientException ex) {
+                    breaker.onFailure();
+                    failed.increment();
+                    errorLog.report("OAuth call to " + provider, ex);
+                    throw new AppException("Sign-in with " + provider + " failed, please retry",
+                            HttpStatus.SERVICE_UNAVAILABLE, "PROVIDER_UNAVAILABLE");
+                } catch (RuntimeException ex) {
+                    breaker.onFailure();
+                    failed.increment();
+                    throw ex;
+                }
+            } finally {
+                bulkhead.release();
+            }
+        }
+
+        private static Counter outcome(MeterRegistry meterRegistry, String provider, String outcome) {
+            return Counter.builder("oauth.provider.calls")
+                    .description("Calls to an OAuth provider by outcome")
+                    .tag("provider", provider)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
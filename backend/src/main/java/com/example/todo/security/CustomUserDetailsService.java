@@ -16,8 +16,8 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Try finding by username OR email
-        return userRepository.findByUsername(username)
-                .or(() -> userRepository.findByEmail(username))
+        return userRepository.findByUsernameOrEmail(username).stream()
+                .findFirst()
                 .map(UserPrincipal::create)
                 .orElseThrow(
                         () -> new UsernameNotFoundException("User not found with username or email : " + username));
@@ -4,10 +4,13 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.example.todo.logging.ErrorLog;
+import com.example.todo.timing.RequestTiming;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,24 +27,37 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private ErrorLog errorLog;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJwt(jwt);
+            if (StringUtils.hasText(jwt)) {
+                long start = RequestTiming.start();
+                String username = tokenProvider.validateToken(jwt) ? tokenProvider.getUsernameFromJwt(jwt) : null;
+                RequestTiming.stop(RequestTiming.Phase.JWT, start);
+
+                if (username != null) {
+                    start = RequestTiming.start();
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    RequestTiming.stop(RequestTiming.Phase.USER, start);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
+        } catch (UsernameNotFoundException ex) {
+            // A valid token of a deleted user: the request simply stays unauthenticated
+            logger.debug("JWT user not found: " + ex.getMessage());
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            errorLog.report("JWT authentication", ex);
         }
 
         filterChain.doFilter(request, response);
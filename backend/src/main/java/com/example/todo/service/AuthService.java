@@ -1,13 +1,14 @@
 package com.example.todo.service;
 
 import com.example.todo.dto.*;
-import com.example.todo.entity.OAuthCredential;
 import com.example.todo.entity.User;
 import com.example.todo.repository.UserRepository;
+import com.example.todo.resilience.OAuthProviderGuards;
 import com.example.todo.security.JwtTokenProvider;
 import com.example.todo.security.UserPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,7 +17,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
@@ -32,7 +32,10 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    @Lazy
     private final RestTemplate restTemplate;
+    private final OAuthProvisioningService oAuthProvisioningService;
+    private final OAuthProviderGuards oAuthProviderGuards;
 
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
@@ -46,11 +49,17 @@ public class AuthService {
     @Value("${spring.security.oauth2.client.registration.github.client-secret}")
     private String githubClientSecret;
 
-    // In production, keep these dynamic or from property
-    private static final String GOOGLE_TOKEN_URI = "https://oauth2.googleapis.com/token";
-    private static final String GOOGLE_USER_INFO_URI = "https://www.googleapis.com/oauth2/v3/userinfo";
-    private static final String GITHUB_TOKEN_URI = "https://github.com/login/oauth/access_token";
-    private static final String GITHUB_USER_INFO_URI = "https://api.github.com/user";
+    @Value("${app.oauth.google.token-uri}")
+    private String googleTokenUri;
+
+    @Value("${app.oauth.google.user-info-uri}")
+    private String googleUserInfoUri;
+
+    @Value("${app.oauth.github.token-uri}")
+    private String githubTokenUri;
+
+    @Value("${app.oauth.github.user-info-uri}")
+    private String githubUserInfoUri;
 
     public JwtResponse login(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -80,7 +89,6 @@ public class AuthService {
         userRepository.save(user);
     }
 
-    @Transactional
     public JwtResponse processOAuthPost(OAuth2CallbackRequest request) {
         String token = exchangeCodeForToken(request);
         Map<String, Object> userInfo = fetchUserInfo(request.getProvider(), token);
@@ -93,29 +101,7 @@ public class AuthService {
         if (email == null)
             throw new RuntimeException("Email not found from provider");
 
-        User user = userRepository.findByEmail(email).orElse(null);
-        if (user == null) {
-            user = new User();
-            user.setEmail(email);
-            user.setUsername(email);
-            userRepository.save(user);
-        }
-
-        // Link credential if not exists
-        boolean credentialExists = user.getCredentials().stream()
-                .anyMatch(c -> c.getProvider().equalsIgnoreCase(request.getProvider())
-                        && c.getProviderId().equals(providerId));
-
-        if (!credentialExists) {
-            OAuthCredential cred = new OAuthCredential();
-            cred.setProvider(request.getProvider());
-            cred.setProviderId(providerId);
-            cred.setEmail(email);
-            cred.setName(name);
-            cred.setUser(user);
-            user.getCredentials().add(cred);
-            userRepository.save(user);
-        }
+        User user = oAuthProvisioningService.provision(request.getProvider(), providerId, email, name);
 
         String jwt = jwtTokenProvider.generateTokenFromUsername(user.getUsername());
         return new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(),
@@ -136,20 +122,22 @@ public class AuthService {
         if ("google".equalsIgnoreCase(request.getProvider())) {
             map.add("client_id", googleClientId);
             map.add("client_secret", googleClientSecret);
-            tokenUri = GOOGLE_TOKEN_URI;
+            tokenUri = googleTokenUri;
         } else if ("github".equalsIgnoreCase(request.getProvider())) {
             map.add("client_id", githubClientId);
             map.add("client_secret", githubClientSecret);
-            tokenUri = GITHUB_TOKEN_URI;
+            tokenUri = githubTokenUri;
             headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
         } else {
             throw new RuntimeException("Unsupported provider");
         }
 
         HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(map, headers);
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(tokenUri, HttpMethod.POST, entity,
-                new ParameterizedTypeReference<Map<String, Object>>() {
-                });
+        String uri = tokenUri;
+        ResponseEntity<Map<String, Object>> response = oAuthProviderGuards.call(request.getProvider(),
+                () -> restTemplate.exchange(uri, HttpMethod.POST, entity,
+                        new ParameterizedTypeReference<Map<String, Object>>() {
+                        }));
 
         if (response.getBody() == null || !response.getBody().containsKey("access_token")) {
             throw new RuntimeException("Failed to retrieve access token");
@@ -163,9 +151,9 @@ public class AuthService {
         headers.setBearerAuth(token);
         HttpEntity<?> entity = new HttpEntity<>(headers);
 
-        String userInfoUri = "google".equalsIgnoreCase(provider) ? GOOGLE_USER_INFO_URI : GITHUB_USER_INFO_URI;
-        return restTemplate
+        String userInfoUri = "google".equalsIgnoreCase(provider) ? googleUserInfoUri : githubUserInfoUri;
+        return oAuthProviderGuards.call(provider, () -> restTemplate
                 .exchange(userInfoUri, HttpMethod.GET, entity, new ParameterizedTypeReference<Map<String, Object>>() {
-                }).getBody();
+                }).getBody());
     }
 }
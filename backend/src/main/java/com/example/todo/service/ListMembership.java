@@ -0,0 +1,16 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.ListRole;
+import lombok.Value;
+
+/**
+ * A shared list as one of its members sees it. The owner id also names the
+ * shard holding the list's tasks.
+ */
+@Value
+public class ListMembership {
+    Long listId;
+    String name;
+    Long ownerId;
+    ListRole role;
+}
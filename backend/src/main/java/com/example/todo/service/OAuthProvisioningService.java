@@ -0,0 +1,82 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.OAuthCredential;
+import com.example.todo.entity.User;
+import com.example.todo.repository.OAuthCredentialRepository;
+import com.example.todo.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Finds or creates the local user behind an OAuth identity. Shared by the SPA
+ * callback flow ({@link AuthService}) and the Spring Security login flow.
+ */
+@Service
+public class OAuthProvisioningService {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final UserRepository userRepository;
+    private final OAuthCredentialRepository credentialRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public OAuthProvisioningService(UserRepository userRepository,
+            OAuthCredentialRepository credentialRepository,
+            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.credentialRepository = credentialRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each attempt needs a fresh session: a failed insert poisons the one it ran in
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public User provision(String provider, String providerId, String email, String name) {
+        String normalizedProvider = provider.toLowerCase(Locale.ROOT);
+
+        DataIntegrityViolationException lastFailure = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                return transactionTemplate.execute(
+                        status -> resolveOrCreate(normalizedProvider, providerId, email, name));
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent first login inserted the same user or credential; the next
+                // attempt resolves the row it committed
+                lastFailure = ex;
+            }
+        }
+        throw lastFailure;
+    }
+
+    private User resolveOrCreate(String provider, String providerId, String email, String name) {
+        Optional<User> linked = credentialRepository.findUserByProviderAndProviderId(provider, providerId);
+        if (linked.isPresent()) {
+            return linked.get();
+        }
+
+        User user = userRepository.findByEmail(email)
+                .orElseGet(() -> User.builder().email(email).username(email).build());
+
+        OAuthCredential credential = OAuthCredential.builder()
+                .provider(provider)
+                .providerId(providerId)
+                .email(email)
+                .name(name)
+                .user(user)
+                .build();
+
+        if (user.getId() == null) {
+            // New user and credential go out together through the cascade
+            user.getCredentials().add(credential);
+            return userRepository.saveAndFlush(user);
+        }
+
+        credentialRepository.saveAndFlush(credential);
+        return user;
+    }
+}
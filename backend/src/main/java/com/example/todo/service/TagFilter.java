@@ -0,0 +1,44 @@
+package com.example.todo.service;
+
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Boolean tag query: every tag of allOf, at least one of anyOf when given, none of noneOf
+@Value
+public class TagFilter {
+    Set<String> allOf;
+    Set<String> anyOf;
+    Set<String> noneOf;
+
+    // null when no tag term is given, so untagged queries keep their cache keys and plans
+    public static TagFilter of(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf) {
+        TagFilter filter = new TagFilter(normalize(allOf), normalize(anyOf), normalize(noneOf));
+        return filter.allOf.isEmpty() && filter.anyOf.isEmpty() && filter.noneOf.isEmpty() ? null : filter;
+    }
+
+    public static String normalize(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> normalizeAll(Collection<String> tags) {
+        return List.copyOf(normalize(tags));
+    }
+
+    private static Set<String> normalize(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                names.add(normalize(tag));
+            }
+        }
+        return names;
+    }
+}
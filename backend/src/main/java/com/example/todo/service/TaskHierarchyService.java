@@ -0,0 +1,99 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskNodeResponse;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.Status;
+import com.example.todo.entity.Task;
+import com.example.todo.exception.AppException;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTreeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Maintains the {@code task_tree} closure table next to {@code tasks.parent_id}.
+ *
+ * Every task has a row for each of its ancestors and one for itself, so a whole
+ * subtree is a single range scan on the primary key and a move rewrites the
+ * affected paths in two statements, however deep the tree is. Callers run inside
+ * the TaskService transaction, which keeps the table in step with parent_id.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskHierarchyService {
+
+    private final TaskTreeRepository taskTreeRepository;
+    private final TaskRepository taskRepository;
+
+    public void attach(Long taskId, Long parentId) {
+        if (parentId == null) {
+            taskTreeRepository.insertRoot(taskId);
+        } else {
+            taskTreeRepository.insertLeaf(taskId, parentId);
+        }
+    }
+
+    // Moves the task together with its subtree; the caller has ruled out cycles
+    public void move(Long taskId, Long newParentId) {
+        taskTreeRepository.detachSubtree(taskId);
+        if (newParentId != null) {
+            taskTreeRepository.attachSubtree(taskId, newParentId);
+        }
+    }
+
+    /**
+     * Locks the task and the new parent's path to the root, and returns that path.
+     *
+     * The move closes a loop exactly when the task is on the path. Changing the
+     * path means moving one of its tasks, which takes the same row lock, so two
+     * moves that each pass the check (A below B and B below A) cannot form a cycle
+     * together: the second one waits and then sees the path the first one left.
+     */
+    public List<Long> lockPathForMove(Long taskId, Long newParentId) {
+        List<Long> path = taskTreeRepository.findPathToRoot(newParentId);
+        List<Long> locked = new ArrayList<>(path);
+        locked.add(taskId);
+        taskRepository.lockAll(locked);
+        // A move committed between the read and the locks leaves a path we did not lock
+        if (!path.equals(taskTreeRepository.findPathToRoot(newParentId))) {
+            throw new AppException("Task was moved concurrently, please retry", HttpStatus.CONFLICT, "CONFLICT");
+        }
+        return path;
+    }
+
+    public boolean hasChildren(Long taskId) {
+        return taskTreeRepository.existsByAncestorIdAndDepth(taskId, 1);
+    }
+
+    // Builds the nested response and rollups from a subtree read, which lists parents before their children
+    static TaskNodeResponse toTree(List<Task> subtree, Function<Task, TaskResponse> render) {
+        Map<Long, TaskNodeResponse> nodes = new HashMap<>();
+        for (Task task : subtree) {
+            TaskNodeResponse node = TaskNodeResponse.builder().task(render.apply(task)).build();
+            nodes.put(task.getId(), node);
+            TaskNodeResponse parent = nodes.get(task.getParentId());
+            if (parent != null && !task.getId().equals(subtree.get(0).getId())) {
+                parent.getChildren().add(node);
+            }
+        }
+        for (int i = subtree.size() - 1; i >= 0; i--) {
+            TaskNodeResponse node = nodes.get(subtree.get(i).getId());
+            for (TaskNodeResponse child : node.getChildren()) {
+                node.setSubtasks(node.getSubtasks() + child.getSubtasks() + 1);
+                node.setCompletedSubtasks(node.getCompletedSubtasks() + child.getCompletedSubtasks()
+                        + (child.getTask().getStatus() == Status.DONE ? 1 : 0));
+            }
+            if (node.getSubtasks() > 0) {
+                node.setPercentComplete(node.getCompletedSubtasks() * 100 / node.getSubtasks());
+            }
+        }
+        return nodes.get(subtree.get(0).getId());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.ListRole;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.shard.ShardRoutingDataSource;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The shared lists each user can reach, with their role on each.
+ *
+ * A user's memberships are read from {@code task_list_members} in one range
+ * scan on first use and kept until a membership of that user changes, so access
+ * checks on tasks and lists cost no query. Entries also expire, which bounds
+ * how long a change made through another instance goes unnoticed here.
+ */
+@Component
+public class TaskListAccess {
+
+    private static final String MEMBERSHIPS_SQL = "SELECT l.id, l.name, l.owner_id, m.role "
+            + "FROM task_list_members m JOIN task_lists l ON l.id = m.list_id "
+            + "WHERE m.user_id = ? ORDER BY m.list_id";
+
+    private final JdbcTemplate directory;
+    private final AsyncCache<Long, Map<Long, ListMembership>> users;
+
+    public TaskListAccess(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${app.task-lists.access-max-users}") long maxUsers,
+            @Value("${app.task-lists.access-expire-seconds}") long expireSeconds) {
+        // Lists live next to users, so the lookup must not join a transaction on the user's shard
+        this.directory = new JdbcTemplate(ShardRoutingDataSource.directoryOf(dataSource));
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(expireSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, users.synchronous(), "tasks.lists.access");
+    }
+
+    // Ordered by list id
+    public Map<Long, ListMembership> listsOf(Long userId) {
+        // Loaded outside any map lock, as in TaskTagIndex, so a virtual thread is not pinned by the query
+        CompletableFuture<Map<Long, ListMembership>> placeholder = new CompletableFuture<>();
+        CompletableFuture<Map<Long, ListMembership>> existing = users.asMap().putIfAbsent(userId, placeholder);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            placeholder.complete(load(userId));
+        } catch (RuntimeException | Error ex) {
+            placeholder.completeExceptionally(ex);
+            throw ex;
+        }
+        return await(placeholder);
+    }
+
+    // Non-members get a 404 so list ids do not reveal which lists exist
+    public ListMembership require(Long userId, Long listId, ListRole role) {
+        ListMembership membership = listsOf(userId).get(listId);
+        if (membership == null) {
+            throw new ResourceNotFoundException("List not found");
+        }
+        if (!membership.getRole().includes(role)) {
+            throw new ForbiddenException("Access denied");
+        }
+        return membership;
+    }
+
+    public boolean allows(Long userId, Long listId, ListRole role) {
+        if (listId == null) {
+            return false;
+        }
+        ListMembership membership = listsOf(userId).get(listId);
+        return membership != null && membership.getRole().includes(role);
+    }
+
+    // Called once a membership change has committed, for every user whose lists it changed
+    public void invalidate(Collection<Long> userIds) {
+        users.synchronous().invalidateAll(userIds);
+    }
+
+    private Map<Long, ListMembership> load(Long userId) {
+        Map<Long, ListMembership> lists = new LinkedHashMap<>();
+        directory.query(MEMBERSHIPS_SQL, rs -> {
+            long listId = rs.getLong(1);
+            lists.put(listId, new ListMembership(listId, rs.getString(2), rs.getLong(3),
+                    ListRole.fromCode(rs.getInt(4))));
+        }, userId);
+        return Collections.unmodifiableMap(lists);
+    }
+
+    private static Map<Long, ListMembership> await(CompletableFuture<Map<Long, ListMembership>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
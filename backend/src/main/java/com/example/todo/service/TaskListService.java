@@ -0,0 +1,169 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.ListMemberRequest;
+import com.example.todo.dto.ListMemberResponse;
+import com.example.todo.dto.TaskListRequest;
+import com.example.todo.dto.TaskListResponse;
+import com.example.todo.dto.TaskRequest;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.ListRole;
+import com.example.todo.exception.AppException;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.security.UserPrincipal;
+import com.example.todo.shard.ShardRouter;
+import com.example.todo.shard.ShardRoutingDataSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Shared task lists and their members.
+ *
+ * Lists and memberships are written on the directory database; every change
+ * evicts the affected users from {@link TaskListAccess} once it has committed.
+ * A list's tasks are read and written through TaskService on the shard of the
+ * list owner.
+ */
+@Service
+public class TaskListService {
+
+    private final JdbcTemplate directory;
+    private final TransactionTemplate directoryTransaction;
+    private final TaskListAccess taskListAccess;
+    private final TaskService taskService;
+    private final ShardRouter shardRouter;
+
+    public TaskListService(DataSource dataSource, TaskListAccess taskListAccess, TaskService taskService,
+            ShardRouter shardRouter) {
+        DataSource directoryDataSource = ShardRoutingDataSource.directoryOf(dataSource);
+        this.directory = new JdbcTemplate(directoryDataSource);
+        this.directoryTransaction = new TransactionTemplate(new DataSourceTransactionManager(directoryDataSource));
+        this.taskListAccess = taskListAccess;
+        this.taskService = taskService;
+        this.shardRouter = shardRouter;
+    }
+
+    // Served from the membership cache
+    public List<TaskListResponse> getLists(UserPrincipal currentUser) {
+        return taskListAccess.listsOf(currentUser.getId()).values().stream().map(TaskListResponse::from).toList();
+    }
+
+    public TaskListResponse createList(UserPrincipal currentUser, TaskListRequest request) {
+        Long listId = directoryTransaction.execute(status -> {
+            KeyHolder keys = new GeneratedKeyHolder();
+            directory.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO task_lists (owner_id, name) VALUES (?, ?)", new String[] { "id" });
+                statement.setLong(1, currentUser.getId());
+                statement.setString(2, request.getName());
+                return statement;
+            }, keys);
+            long id = keys.getKey().longValue();
+            directory.update("INSERT INTO task_list_members (user_id, list_id, role) VALUES (?, ?, ?)",
+                    currentUser.getId(), id, ListRole.OWNER.getCode());
+            return id;
+        });
+        taskListAccess.invalidate(List.of(currentUser.getId()));
+        return new TaskListResponse(listId, request.getName(), currentUser.getId(), ListRole.OWNER);
+    }
+
+    // Memberships go with the list; its tasks stay with the owner
+    public void deleteList(UserPrincipal currentUser, Long listId) {
+        ListMembership list = taskListAccess.require(currentUser.getId(), listId, ListRole.OWNER);
+        List<Long> members = directoryTransaction.execute(status -> {
+            List<Long> userIds = directory.queryForList("SELECT user_id FROM task_list_members WHERE list_id = ?",
+                    Long.class, listId);
+            directory.update("DELETE FROM task_lists WHERE id = ?", listId);
+            return userIds;
+        });
+        taskListAccess.invalidate(members);
+        shardRouter.callForUser(list.getOwnerId(), () -> {
+            taskService.detachList(list);
+            return null;
+        });
+    }
+
+    public List<ListMemberResponse> getMembers(UserPrincipal currentUser, Long listId) {
+        taskListAccess.require(currentUser.getId(), listId, ListRole.VIEWER);
+        return directory.query("SELECT m.user_id, u.username, m.role FROM task_list_members m "
+                + "JOIN users u ON u.id = m.user_id WHERE m.list_id = ? ORDER BY m.role DESC, u.username",
+                (rs, row) -> new ListMemberResponse(rs.getLong(1), rs.getString(2), ListRole.fromCode(rs.getInt(3))),
+                listId);
+    }
+
+    // Adds the user or changes their role
+    public ListMemberResponse putMember(UserPrincipal currentUser, Long listId, ListMemberRequest request) {
+        taskListAccess.require(currentUser.getId(), listId, ListRole.OWNER);
+        if (request.getRole() == ListRole.OWNER) {
+            throw new AppException("A list has exactly one owner", HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+        Long memberId = directory.query("SELECT id FROM users WHERE username = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, request.getUsername());
+        if (memberId == null) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (memberId.equals(currentUser.getId())) {
+            throw new AppException("The owner's role cannot change", HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+
+        int role = request.getRole().getCode();
+        try {
+            directoryTransaction.executeWithoutResult(status -> {
+                int updated = directory.update(
+                        "UPDATE task_list_members SET role = ? WHERE user_id = ? AND list_id = ?",
+                        role, memberId, listId);
+                if (updated == 0) {
+                    directory.update("INSERT INTO task_list_members (user_id, list_id, role) VALUES (?, ?, ?)",
+                            memberId, listId, role);
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent add of the same member, or the list was deleted through another instance
+            throw new AppException("List membership changed concurrently, please retry", HttpStatus.CONFLICT,
+                    "CONFLICT");
+        }
+        taskListAccess.invalidate(List.of(memberId));
+        return new ListMemberResponse(memberId, request.getUsername(), request.getRole());
+    }
+
+    // The owner removes others; everyone else may only leave
+    public void removeMember(UserPrincipal currentUser, Long listId, Long memberId) {
+        ListMembership list = taskListAccess.require(currentUser.getId(), listId, ListRole.VIEWER);
+        boolean self = memberId.equals(currentUser.getId());
+        if (self && list.getRole() == ListRole.OWNER) {
+            throw new AppException("The owner cannot leave a list, only delete it", HttpStatus.BAD_REQUEST,
+                    "VALIDATION_ERROR");
+        }
+        if (!self && list.getRole() != ListRole.OWNER) {
+            throw new ForbiddenException("Access denied");
+        }
+        int removed = directory.update("DELETE FROM task_list_members WHERE user_id = ? AND list_id = ?",
+                memberId, listId);
+        if (removed == 0) {
+            throw new ResourceNotFoundException("Member not found");
+        }
+        taskListAccess.invalidate(List.of(memberId));
+    }
+
+    public Page<TaskResponse> getTasks(UserPrincipal currentUser, Long listId, Pageable pageable) {
+        ListMembership list = taskListAccess.require(currentUser.getId(), listId, ListRole.VIEWER);
+        return shardRouter.callForUser(list.getOwnerId(), () -> taskService.getListTasks(list, pageable));
+    }
+
+    public TaskResponse createTask(UserPrincipal currentUser, Long listId, TaskRequest request) {
+        ListMembership list = taskListAccess.require(currentUser.getId(), listId, ListRole.EDITOR);
+        return shardRouter.callForUser(list.getOwnerId(), () -> taskService.createInList(currentUser, list, request));
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.OccurrenceRequest;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskOccurrence;
+import com.example.todo.repository.TaskOccurrenceRepository;
+import com.example.todo.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lists a deadline window with recurring tasks expanded into their occurrences.
+ *
+ * Occurrences are computed from the rule, starting directly at the window, so
+ * the work is bounded by the window size and not by the age of the series.
+ * Only skips and completions are read from {@code task_occurrences}.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskOccurrenceService {
+
+    static final int MAX_OCCURRENCES_PER_SERIES = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskOccurrenceRepository occurrenceRepository;
+
+    public Page<TaskResponse> listWithOccurrences(Long userId,
+            Priority priority,
+            Status status,
+            LocalDateTime deadlineFrom,
+            LocalDateTime deadlineTo,
+            Pageable pageable) {
+        // Every row up to the end of the requested page, so the merge below can place them
+        int rowsNeeded = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        Page<Task> oneOff = taskRepository.findOneOffInWindow(userId, priority, status, deadlineFrom, deadlineTo,
+                PageRequest.of(0, rowsNeeded, pageable.getSort()));
+        List<TaskResponse> occurrences = expand(
+                taskRepository.findRecurringInWindow(userId, priority, deadlineFrom, deadlineTo),
+                status, deadlineFrom, deadlineTo);
+
+        List<TaskResponse> merged = new ArrayList<>(oneOff.getNumberOfElements() + occurrences.size());
+        oneOff.forEach(task -> merged.add(TaskResponse.fromEntity(task)));
+        merged.addAll(occurrences);
+        merged.sort(comparator(pageable.getSort()));
+
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = Math.min(from + pageable.getPageSize(), merged.size());
+        return new PageImpl<>(new ArrayList<>(merged.subList(from, to)), pageable,
+                oneOff.getTotalElements() + occurrences.size());
+    }
+
+    public TaskOccurrence saveOverride(Task task, LocalDateTime occurrenceAt, OccurrenceRequest request) {
+        TaskOccurrence override = occurrenceRepository.findByTaskIdAndOccurrenceAt(task.getId(), occurrenceAt)
+                .orElseGet(() -> TaskOccurrence.builder()
+                        .task(task)
+                        .occurrenceAt(occurrenceAt)
+                        .status(Status.NOT_STARTED)
+                        .build());
+        if (request.getStatus() != null)
+            override.setStatus(request.getStatus());
+        override.setSkipped(request.isSkipped());
+        return occurrenceRepository.save(override);
+    }
+
+    public static boolean isOccurrence(Task series, LocalDateTime at) {
+        return !occurrences(series, at, at).isEmpty();
+    }
+
+    static List<LocalDateTime> occurrences(Task series, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime anchor = series.getDeadline();
+        ChronoUnit unit = series.getRecurrenceFrequency().getUnit();
+        int interval = series.getRecurrenceInterval() != null ? Math.max(1, series.getRecurrenceInterval()) : 1;
+        LocalDateTime end = series.getRecurrenceUntil() != null && series.getRecurrenceUntil().isBefore(to)
+                ? series.getRecurrenceUntil()
+                : to;
+
+        // Jump straight to the window; month lengths can leave this a step short, never past it
+        long index = anchor.isBefore(from) ? unit.between(anchor, from) / interval : 0;
+
+        List<LocalDateTime> result = new ArrayList<>();
+        while (result.size() < MAX_OCCURRENCES_PER_SERIES) {
+            // Always offset from the anchor so month-end dates do not drift
+            LocalDateTime at = anchor.plus(index * interval, unit);
+            if (at.isAfter(end)) {
+                break;
+            }
+            if (!at.isBefore(from)) {
+                result.add(at);
+            }
+            index++;
+        }
+        return result;
+    }
+
+    private List<TaskResponse> expand(List<Task> series, Status status, LocalDateTime from, LocalDateTime to) {
+        if (series.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Map<LocalDateTime, TaskOccurrence>> overrides = new HashMap<>();
+        for (TaskOccurrence override : occurrenceRepository.findByTaskIdInAndOccurrenceAtBetween(
+                series.stream().map(Task::getId).toList(), from, to)) {
+            overrides.computeIfAbsent(override.getTask().getId(), id -> new HashMap<>())
+                    .put(override.getOccurrenceAt(), override);
+        }
+
+        List<TaskResponse> result = new ArrayList<>();
+        for (Task task : series) {
+            Map<LocalDateTime, TaskOccurrence> taskOverrides = overrides.getOrDefault(task.getId(), Map.of());
+            for (LocalDateTime at : occurrences(task, from, to)) {
+                TaskOccurrence override = taskOverrides.get(at);
+                if (override != null && override.isSkipped()) {
+                    continue;
+                }
+                Status occurrenceStatus = override != null ? override.getStatus() : Status.NOT_STARTED;
+                if (status == null || status == occurrenceStatus) {
+                    result.add(TaskResponse.forOccurrence(task, at, occurrenceStatus));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Mirrors the database ordering of the same Sort, including MySQL's nulls-first ascending order
+    static Comparator<TaskResponse> comparator(Sort sort) {
+        Comparator<TaskResponse> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<TaskResponse> next = switch (order.getProperty()) {
+                case "id" -> nullsFirst(TaskResponse::getId);
+                case "description" -> nullsFirst(TaskResponse::getDescription);
+                case "manualRank" -> nullsFirst(TaskResponse::getManualRank);
+                case "priority" -> nullsFirst(TaskResponse::getPriority);
+                case "status" -> nullsFirst(TaskResponse::getStatus);
+                case "deadline" -> nullsFirst(TaskResponse::getDeadline);
+                case "createdAt" -> nullsFirst(TaskResponse::getCreatedAt);
+                case "updatedAt" -> nullsFirst(TaskResponse::getUpdatedAt);
+                default -> null;
+            };
+            if (next == null) {
+                continue;
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result != null ? result : (a, b) -> 0;
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<TaskResponse> nullsFirst(
+            Function<TaskResponse, T> property) {
+        return Comparator.comparing(property, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
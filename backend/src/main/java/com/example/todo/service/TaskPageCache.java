@@ -0,0 +1,92 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of task list pages, bounded by the estimated size of the
+ * cached pages rather than their number.
+ *
+ * Entries are keyed by the query plus the owner's version stamp. A write bumps
+ * the stamp, which makes every page cached for that user unreachable; the
+ * weight bound then ages them out. Stamps come from one global clock, so a
+ * user whose stamp was dropped from the version map never gets an old one back.
+ */
+@Component
+public class TaskPageCache {
+
+    private static final int MAX_TRACKED_USERS = 100_000;
+
+    // Rough retained sizes of a PageImpl/PageRequest and of a TaskResponse without its description
+    private static final int PAGE_OVERHEAD_BYTES = 256;
+    private static final int TASK_OVERHEAD_BYTES = 200;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, Long> versions;
+    private final Cache<VersionedQuery, Page<TaskResponse>> pages;
+
+    public TaskPageCache(MeterRegistry meterRegistry,
+            @Value("${app.task-cache.max-weight-bytes}") long maxWeightBytes) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((VersionedQuery key, Page<TaskResponse> page) -> weigh(page))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "tasks.page");
+        Gauge.builder("tasks.page.cache.hit.ratio", pages, cache -> cache.stats().hitRate())
+                .description("Fraction of task list reads served from the page cache")
+                .register(meterRegistry);
+    }
+
+    public Page<TaskResponse> get(TaskQuery query, Supplier<Page<TaskResponse>> loader) {
+        VersionedQuery key = new VersionedQuery(query, versionOf(query.getUserId()));
+        Page<TaskResponse> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Page<TaskResponse> loaded = loader.get();
+        pages.put(key, loaded);
+        return loaded;
+    }
+
+    // Takes effect after commit so a concurrent read cannot cache pre-write rows under the new stamp
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> versions.put(userId, clock.incrementAndGet()));
+    }
+
+    private long versionOf(Long userId) {
+        return versions.get(userId, id -> clock.incrementAndGet());
+    }
+
+    private static int weigh(Page<TaskResponse> page) {
+        long bytes = PAGE_OVERHEAD_BYTES;
+        for (TaskResponse task : page.getContent()) {
+            String description = task.getDescription();
+            bytes += TASK_OVERHEAD_BYTES + (description != null ? 40L + description.length() : 0);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class VersionedQuery {
+        private final TaskQuery query;
+        private final long version;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import lombok.Value;
+import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+
+// Identity of a task list read: two requests with equal TaskQuery return the same page
+@Value
+public class TaskQuery {
+    Long userId;
+    Priority priority;
+    Status status;
+    LocalDateTime deadlineFrom;
+    LocalDateTime deadlineTo;
+    TagFilter tags; // null without tag terms
+    Pageable pageable;
+}
@@ -0,0 +1,82 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for task list reads: while a query is running, identical
+ * queries for the same user wait for its result instead of hitting the database.
+ */
+@Component
+public class TaskQueryCoalescer {
+
+    private final Map<TaskQuery, CompletableFuture<Page<TaskResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public TaskQueryCoalescer(MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("tasks.query.executed")
+                .description("Task list queries sent to the database")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("tasks.query.coalesced")
+                .description("Task list queries served by joining an identical in-flight query")
+                .register(meterRegistry);
+        Gauge.builder("tasks.query.inflight", inFlight, Map::size)
+                .description("Distinct task list queries currently running")
+                .register(meterRegistry);
+    }
+
+    public Page<TaskResponse> execute(TaskQuery query, Supplier<Page<TaskResponse>> loader) {
+        CompletableFuture<Page<TaskResponse>> future = new CompletableFuture<>();
+        CompletableFuture<Page<TaskResponse>> existing = inFlight.putIfAbsent(query, future);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            Page<TaskResponse> result = loader.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(query, future);
+        }
+    }
+
+    /**
+     * Stops new reads for the user from joining queries that started before a write.
+     * Runs once the surrounding transaction commits, since until then a fresh query
+     * would not see the write either.
+     */
+    public void invalidate(Long userId) {
+        AfterCommit.run(() -> inFlight.keySet().removeIf(query -> query.getUserId().equals(userId)));
+    }
+
+    private static Page<TaskResponse> await(CompletableFuture<Page<TaskResponse>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.todo.service;
+
+/**
+ * Manual-order keys that sort as plain ASCII strings, so a task can be placed
+ * between two others by writing only its own key.
+ *
+ * A key is a variable-length integer part followed by an optional fraction,
+ * both in base 62. The first character encodes the length of the integer part
+ * ({@code a} = 1 digit, {@code b} = 2, ...; upper case for negative integers),
+ * so keys appended at either end stay short. Placing between two neighbours
+ * extends the fraction by about one character per six placements into the
+ * same gap, which is what rebalancing resets. A fraction never ends in
+ * {@code 0}, so there is always room below any key.
+ */
+final class TaskRank {
+
+    static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final int BASE = DIGITS.length();
+    private static final String SMALLEST_INTEGER = "A" + "0".repeat(26);
+
+    private TaskRank() {
+    }
+
+    // A key above lower and below upper; null stands for the start or end of the list
+    static String between(String lower, String upper) {
+        if (lower != null) {
+            validate(lower);
+        }
+        if (upper != null) {
+            validate(upper);
+        }
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException(lower + " is not below " + upper);
+        }
+
+        if (lower == null) {
+            if (upper == null) {
+                return "a0";
+            }
+            String integer = integerPart(upper);
+            String fraction = upper.substring(integer.length());
+            if (integer.equals(SMALLEST_INTEGER)) {
+                return integer + midpoint("", fraction);
+            }
+            if (integer.compareTo(upper) < 0) {
+                return integer;
+            }
+            String decremented = decrementInteger(integer);
+            if (decremented == null) {
+                throw new IllegalStateException("No key below " + upper);
+            }
+            return decremented;
+        }
+
+        String integer = integerPart(lower);
+        String fraction = lower.substring(integer.length());
+        if (upper == null) {
+            String incremented = incrementInteger(integer);
+            return incremented != null ? incremented : integer + midpoint(fraction, null);
+        }
+        String upperInteger = integerPart(upper);
+        if (integer.equals(upperInteger)) {
+            return integer + midpoint(fraction, upper.substring(upperInteger.length()));
+        }
+        String incremented = incrementInteger(integer);
+        if (incremented == null) {
+            throw new IllegalStateException("No key above " + lower);
+        }
+        return incremented.compareTo(upper) < 0 ? incremented : integer + midpoint(fraction, null);
+    }
+
+    // A fraction strictly between a and b, where "" is 0 and null is 1
+    private static String midpoint(String a, String b) {
+        if (b != null) {
+            int common = 0;
+            while (common < b.length() && (common < a.length() ? a.charAt(common) : '0') == b.charAt(common)) {
+                common++;
+            }
+            if (common > 0) {
+                return b.substring(0, common) + midpoint(a.substring(Math.min(common, a.length())),
+                        b.substring(common));
+            }
+        }
+        int digitA = a.isEmpty() ? 0 : DIGITS.indexOf(a.charAt(0));
+        int digitB = b != null ? DIGITS.indexOf(b.charAt(0)) : BASE;
+        if (digitB - digitA > 1) {
+            return String.valueOf(DIGITS.charAt((digitA + digitB + 1) / 2));
+        }
+        if (b != null && b.length() > 1) {
+            return b.substring(0, 1);
+        }
+        return DIGITS.charAt(digitA) + midpoint(a.isEmpty() ? "" : a.substring(1), null);
+    }
+
+    private static String incrementInteger(String integer) {
+        char head = integer.charAt(0);
+        StringBuilder digits = new StringBuilder(integer.substring(1));
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits.charAt(i)) + 1;
+            if (digit < BASE) {
+                digits.setCharAt(i, DIGITS.charAt(digit));
+                return head + digits.toString();
+            }
+            digits.setCharAt(i, '0');
+        }
+        // Every digit carried: move to the next integer length
+        if (head == 'Z') {
+            return "a0";
+        }
+        if (head == 'z') {
+            return null;
+        }
+        char next = (char) (head + 1);
+        if (next > 'a') {
+            digits.append('0');
+        } else {
+            digits.setLength(digits.length() - 1);
+        }
+        return next + digits.toString();
+    }
+
+    private static String decrementInteger(String integer) {
+        char head = integer.charAt(0);
+        StringBuilder digits = new StringBuilder(integer.substring(1));
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = DIGITS.indexOf(digits.charAt(i)) - 1;
+            if (digit >= 0) {
+                digits.setCharAt(i, DIGITS.charAt(digit));
+                return head + digits.toString();
+            }
+            digits.setCharAt(i, 'z');
+        }
+        if (head == 'a') {
+            return "Z" + DIGITS.charAt(BASE - 1);
+        }
+        if (head == 'A') {
+            return null;
+        }
+        char next = (char) (head - 1);
+        if (next < 'Z') {
+            digits.append('z');
+        } else {
+            digits.setLength(digits.length() - 1);
+        }
+        return next + digits.toString();
+    }
+
+    private static String integerPart(String key) {
+        int length = integerLength(key.charAt(0));
+        if (length > key.length()) {
+            throw new IllegalArgumentException("Invalid rank " + key);
+        }
+        return key.substring(0, length);
+    }
+
+    private static int integerLength(char head) {
+        if (head >= 'a' && head <= 'z') {
+            return head - 'a' + 2;
+        }
+        if (head >= 'A' && head <= 'Z') {
+            return 'Z' - head + 2;
+        }
+        throw new IllegalArgumentException("Invalid rank head " + head);
+    }
+
+    private static void validate(String key) {
+        if (key.isEmpty() || key.equals(SMALLEST_INTEGER)) {
+            throw new IllegalArgumentException("Invalid rank " + key);
+        }
+        String integer = integerPart(key);
+        for (int i = 1; i < key.length(); i++) {
+            if (DIGITS.indexOf(key.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid rank " + key);
+            }
+        }
+        if (key.length() > integer.length() && key.charAt(key.length() - 1) == '0') {
+            throw new IllegalArgumentException("Invalid rank " + key);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.Task;
+import com.example.todo.exception.AppException;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.exception.ResourceNotFoundException;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manual task order. New tasks go to the end, and a move computes one new
+ * rank between the neighbours the task was dropped between, so it writes a
+ * single row. Ranks that grow past {@code app.task-rank.rebalance-length}
+ * queue the user for a background pass that renumbers all of their ranks.
+ */
+@Service
+public class TaskRankService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskRankService.class);
+
+    // Column width of tasks.manual_rank
+    static final int MAX_LENGTH = 255;
+
+    private final TaskRepository taskRepository;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final TaskPageCache taskPageCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebalanceLength;
+    private final Set<Long> pendingRebalance = ConcurrentHashMap.newKeySet();
+
+    public TaskRankService(TaskRepository taskRepository,
+            TaskQueryCoalescer taskQueryCoalescer,
+            TaskPageCache taskPageCache,
+            JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.task-rank.rebalance-length}") int rebalanceLength) {
+        this.taskRepository = taskRepository;
+        this.taskQueryCoalescer = taskQueryCoalescer;
+        this.taskPageCache = taskPageCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rebalanceLength = rebalanceLength;
+    }
+
+    public String rankForNewTask(Long userId) {
+        return checked(userId, TaskRank.between(taskRepository.findLastRank(userId), null));
+    }
+
+    // A rank between afterId and beforeId; with only one of them, between it and its current neighbour
+    public String rankBetween(Long userId, Long taskId, Long afterId, Long beforeId) {
+        if (afterId == null && beforeId == null) {
+            throw new AppException("Set afterId and/or beforeId", HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+        if (taskId.equals(afterId) || taskId.equals(beforeId)) {
+            throw new AppException("A task cannot be placed next to itself", HttpStatus.BAD_REQUEST,
+                    "VALIDATION_ERROR");
+        }
+
+        String lower = null;
+        String upper = null;
+        List<Long> ids = new ArrayList<>(2);
+        if (afterId != null) {
+            ids.add(afterId);
+        }
+        if (beforeId != null) {
+            ids.add(beforeId);
+        }
+        for (Task neighbour : taskRepository.findAllById(ids)) {
+            if (!neighbour.getOwner().getId().equals(userId)) {
+                throw new ForbiddenException("Access denied");
+            }
+            if (neighbour.getId().equals(afterId)) {
+                lower = neighbour.getManualRank();
+            } else {
+                upper = neighbour.getManualRank();
+            }
+        }
+        if ((afterId != null && lower == null) || (beforeId != null && upper == null)) {
+            throw new ResourceNotFoundException("Neighbour task not found");
+        }
+
+        if (beforeId == null) {
+            upper = taskRepository.findRankAfter(userId, lower, taskId);
+        } else if (afterId == null) {
+            lower = taskRepository.findRankBefore(userId, upper, taskId);
+        }
+        if (lower != null && upper != null) {
+            int order = lower.compareTo(upper);
+            if (order > 0) {
+                throw new AppException("afterId must come before beforeId", HttpStatus.BAD_REQUEST,
+                        "VALIDATION_ERROR");
+            }
+            if (order == 0) {
+                // Concurrent placements into one gap can produce equal ranks; renumbering separates them
+                requestRebalance(userId);
+                throw new AppException("Task order is being rebalanced, please retry", HttpStatus.CONFLICT,
+                        "CONFLICT");
+            }
+        }
+        return checked(userId, TaskRank.between(lower, upper));
+    }
+
+    private String checked(Long userId, String rank) {
+        if (rank.length() > rebalanceLength) {
+            requestRebalance(userId);
+        }
+        if (rank.length() > MAX_LENGTH) {
+            throw new AppException("Task order is being rebalanced, please retry", HttpStatus.CONFLICT, "CONFLICT");
+        }
+        return rank;
+    }
+
+    void requestRebalance(Long userId) {
+        AfterCommit.run(() -> pendingRebalance.add(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.task-rank.rebalance-delay-ms}")
+    public void rebalancePending() {
+        for (Iterator<Long> it = pendingRebalance.iterator(); it.hasNext();) {
+            Long userId = it.next();
+            it.remove();
+            try {
+                rebalance(userId);
+            } catch (RuntimeException ex) {
+                log.warn("Rebalancing manual ranks of user {} failed", userId, ex);
+            }
+        }
+    }
+
+    /**
+     * Renumbers the user's ranks to short, evenly spaced keys in their current
+     * order. The rows are locked first, and every version is bumped, so a move
+     * that read its neighbours before the pass fails its version check instead
+     * of writing a rank computed from stale neighbours.
+     */
+    public int rebalance(Long userId) {
+        // The shard has to be selected before the transaction takes its connection
+        Integer renumbered = shardRouter.callForUser(userId, () -> transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM tasks WHERE user_id = ? ORDER BY manual_rank, id FOR UPDATE", Long.class, userId);
+            List<Object[]> ranks = new ArrayList<>(ids.size());
+            String rank = null;
+            for (Long id : ids) {
+                rank = TaskRank.between(rank, null);
+                ranks.add(new Object[] { rank, id });
+            }
+            jdbcTemplate.batchUpdate("UPDATE tasks SET manual_rank = ?, version = version + 1 WHERE id = ?", ranks);
+            return ids.size();
+        }));
+        taskQueryCoalescer.invalidate(userId);
+        taskPageCache.invalidate(userId);
+        log.info("Rebalanced {} manual ranks of user {}", renumbered, userId);
+        return renumbered;
+    }
+}
@@ -1,22 +1,48 @@
 package com.example.todo.service;
 
+import com.example.todo.dto.BulkUpdateRequest;
+import com.example.todo.dto.BulkUpdateResponse;
+import com.example.todo.dto.MoveTaskRequest;
+import com.example.todo.dto.OccurrenceRequest;
+import com.example.todo.dto.RecurrenceRule;
+import com.example.todo.dto.TaskNodeResponse;
+import com.example.todo.dto.TaskPositionRequest;
 import com.example.todo.dto.TaskRequest;
 import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.ListRole;
 import com.example.todo.entity.Priority;
 import com.example.todo.entity.Status;
 import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskOccurrence;
 import com.example.todo.entity.User;
+import com.example.todo.event.TaskEvent;
+import com.example.todo.event.TaskEventLog;
+import com.example.todo.event.TaskEventType;
+import com.example.todo.exception.AppException;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.reminder.DeadlineReminderService;
 import com.example.todo.exception.ResourceNotFoundException;
 import com.example.todo.repository.TaskRepository;
 import com.example.todo.repository.UserRepository;
 import com.example.todo.security.UserPrincipal;
+import com.example.todo.stats.TaskStatsService;
+import com.example.todo.stats.TaskStatsSnapshot;
+import com.example.todo.timing.RequestTiming;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -25,50 +51,180 @@ public class TaskService {
 
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
+    private final TaskQueryCoalescer taskQueryCoalescer;
+    private final TaskPageCache taskPageCache;
+    private final TaskEventLog taskEventLog;
+    private final TaskOccurrenceService taskOccurrenceService;
+    private final DeadlineReminderService deadlineReminderService;
+    private final TaskStatsService taskStatsService;
+    private final TaskHierarchyService taskHierarchyService;
+    private final TaskTagService taskTagService;
+    private final TaskRankService taskRankService;
+    private final TaskListAccess taskListAccess;
 
+    // Not transactional: requests waiting on a coalesced query must not hold a connection.
+    // The repository call runs in its own read-only transaction.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<TaskResponse> getTasks(UserPrincipal currentUser,
             Priority priority,
             Status status,
             LocalDateTime deadlineFrom,
             LocalDateTime deadlineTo,
+            TagFilter tags,
             Pageable pageable) {
-        return taskRepository.findFiltered(currentUser.getId(), priority, status, deadlineFrom, deadlineTo, pageable)
-                .map(TaskResponse::fromEntity);
+        boolean window = deadlineFrom != null && deadlineTo != null;
+        if (tags != null && window) {
+            throw new AppException("Tag filters cannot be combined with a deadline window",
+                    HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+        Pageable ordered = withRankTieBreak(pageable);
+        TaskQuery query = new TaskQuery(currentUser.getId(), priority, status, deadlineFrom, deadlineTo, tags,
+                ordered);
+        return taskPageCache.get(query, () -> taskQueryCoalescer.execute(query, () -> {
+            // Recurring tasks are expanded only inside a bounded deadline window
+            if (window) {
+                long start = RequestTiming.start();
+                Page<TaskResponse> page = taskOccurrenceService.listWithOccurrences(currentUser.getId(), priority,
+                        status, deadlineFrom, deadlineTo, ordered);
+                RequestTiming.stop(RequestTiming.Phase.QUERY, start);
+                taskTagService.fillTags(currentUser.getId(), page.getContent());
+                return page;
+            }
+            long start = RequestTiming.start();
+            Page<Task> rows = tags != null
+                    ? taskTagService.findFiltered(query)
+                    : taskRepository.findFiltered(currentUser.getId(), priority, status, deadlineFrom, deadlineTo,
+                            ordered);
+            RequestTiming.stop(RequestTiming.Phase.QUERY, start);
+            return rows.map(taskTagService.renderer(currentUser.getId()));
+        }));
     }
 
     public TaskResponse createTask(UserPrincipal currentUser, TaskRequest request) {
-        User user = userRepository.findById(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return create(currentUser, currentUser.getId(), null, request);
+    }
+
+    // Tasks added to a shared list belong to its owner; the caller has to be on the owner's shard
+    public TaskResponse createInList(UserPrincipal currentUser, ListMembership list, TaskRequest request) {
+        return create(currentUser, list.getOwnerId(), list.getListId(), request);
+    }
+
+    // One page of a shared list's tasks; the caller has checked access and selected the owner's shard
+    @Transactional(readOnly = true)
+    public Page<TaskResponse> getListTasks(ListMembership list, Pageable pageable) {
+        return taskRepository.findByListId(list.getListId(), withRankTieBreak(pageable))
+                .map(taskTagService.renderer(list.getOwnerId()));
+    }
+
+    // Tasks of a deleted list stay with its owner as ordinary tasks
+    public void detachList(ListMembership list) {
+        if (taskRepository.detachList(list.getListId(), LocalDateTime.now()) > 0) {
+            taskQueryCoalescer.invalidate(list.getOwnerId());
+            taskPageCache.invalidate(list.getOwnerId());
+        }
+    }
+
+    private TaskResponse create(UserPrincipal currentUser, Long ownerId, Long listId, TaskRequest request) {
+        // Users live on the directory database; the owner's id is all a task needs
+        User user = userRepository.getReferenceById(ownerId);
+        Task parent = request.getParentId() != null ? findParent(currentUser, request.getParentId()) : null;
+        if (parent != null && !Objects.equals(parent.getListId(), listId)) {
+            throw new AppException("A subtask must be in the same list as its parent", HttpStatus.BAD_REQUEST,
+                    "VALIDATION_ERROR");
+        }
 
         Task task = Task.builder()
                 .owner(user)
+                .listId(listId)
+                .parentId(parent != null ? parent.getId() : null)
+                .manualRank(taskRankService.rankForNewTask(user.getId()))
                 .description(request.getDescription())
                 .priority(request.getPriority() != null ? request.getPriority() : Priority.NORMAL)
                 .status(request.getStatus() != null ? request.getStatus() : Status.NOT_STARTED)
                 .deadline(request.getDeadline())
                 .build();
+        applyRecurrence(task, request.getRecurrence());
+        if (parent != null && task.isRecurring()) {
+            throw recurringInHierarchy();
+        }
+        trackCompletion(task, null);
 
-        return TaskResponse.fromEntity(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        taskHierarchyService.attach(saved.getId(), saved.getParentId());
+        List<String> tags = request.getTags() != null
+                ? taskTagService.replaceTags(user.getId(), saved.getId(), request.getTags(), true)
+                : List.of();
+        taskStatsService.recordChange(user.getId(), null, TaskStatsSnapshot.of(saved));
+        afterWrite(saved, TaskEventType.CREATED);
+        return withTags(TaskResponse.fromEntity(saved), tags);
     }
 
     public TaskResponse getTask(UserPrincipal currentUser, Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        Task task = findAccessible(currentUser, id, ListRole.VIEWER);
+        return withTags(TaskResponse.fromEntity(task), taskTagService.tagsOf(ownerOf(task), id));
+    }
 
-        if (!task.getOwner().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Access denied");
+    // The task, all of its descendants and their completion rollups from one query
+    public TaskNodeResponse getSubtree(UserPrincipal currentUser, Long id) {
+        List<Task> subtree = taskRepository.findSubtree(id);
+        if (subtree.isEmpty()) {
+            throw new ResourceNotFoundException("Task not found");
         }
-        return TaskResponse.fromEntity(task);
+        Task root = subtree.get(0);
+        checkAccess(currentUser, root, ListRole.VIEWER);
+        return TaskHierarchyService.toTree(subtree, taskTagService.renderer(ownerOf(root)));
     }
 
-    public TaskResponse updateTask(UserPrincipal currentUser, Long id, TaskRequest request) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
-
-        if (!task.getOwner().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Access denied");
+    // Read committed, so that the path re-read after taking the move locks sees moves committed meanwhile
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public TaskResponse moveTask(UserPrincipal currentUser, Long id, MoveTaskRequest request, Long expectedVersion) {
+        Task task = findAccessible(currentUser, id, ListRole.EDITOR);
+        checkVersion(task, expectedVersion);
+        Long parentId = request.getParentId();
+        if (Objects.equals(task.getParentId(), parentId)) {
+            return withTags(TaskResponse.fromEntity(task), taskTagService.tagsOf(ownerOf(task), id));
+        }
+        if (parentId != null) {
+            Task parent = findParent(currentUser, parentId);
+            if (!ownerOf(parent).equals(ownerOf(task)) || !Objects.equals(parent.getListId(), task.getListId())) {
+                throw new AppException("A subtask must be in the same list as its parent", HttpStatus.BAD_REQUEST,
+                        "VALIDATION_ERROR");
+            }
+            if (task.isRecurring()) {
+                throw recurringInHierarchy();
+            }
+            if (taskHierarchyService.lockPathForMove(task.getId(), parentId).contains(task.getId())) {
+                throw new AppException("A task cannot be moved below itself", HttpStatus.BAD_REQUEST,
+                        "VALIDATION_ERROR");
+            }
         }
 
+        task.setParentId(parentId);
+        Task saved = flushChecked(() -> taskRepository.saveAndFlush(task), expectedVersion);
+        taskHierarchyService.move(saved.getId(), parentId);
+        afterWrite(saved, TaskEventType.UPDATED);
+        return withTags(TaskResponse.fromEntity(saved), taskTagService.tagsOf(ownerOf(saved), id));
+    }
+
+    // Places the task between two others in the manual order, writing only its own row
+    public TaskResponse repositionTask(UserPrincipal currentUser, Long id, TaskPositionRequest request,
+            Long expectedVersion) {
+        Task task = findAccessible(currentUser, id, ListRole.EDITOR);
+        checkVersion(task, expectedVersion);
+        task.setManualRank(taskRankService.rankBetween(ownerOf(task), id, request.getAfterId(),
+                request.getBeforeId()));
+        Task saved = flushChecked(() -> taskRepository.saveAndFlush(task), expectedVersion);
+        afterWrite(saved, TaskEventType.UPDATED);
+        return withTags(TaskResponse.fromEntity(saved), taskTagService.tagsOf(ownerOf(saved), id));
+    }
+
+    // expectedVersion comes from If-Match; null updates whatever version is current
+    public TaskResponse updateTask(UserPrincipal currentUser, Long id, TaskRequest request, Long expectedVersion) {
+        Task task = findAccessible(currentUser, id, ListRole.EDITOR);
+        checkVersion(task, expectedVersion);
+        TaskStatsSnapshot before = TaskStatsSnapshot.of(task);
+        Status previousStatus = task.getStatus();
+
         if (request.getDescription() != null)
             task.setDescription(request.getDescription());
         if (request.getPriority() != null)
@@ -77,25 +233,210 @@ public class TaskService {
             task.setStatus(request.getStatus());
         if (request.getDeadline() != null)
             task.setDeadline(request.getDeadline());
+        if (request.getRecurrence() != null) {
+            if (task.getParentId() != null || taskHierarchyService.hasChildren(task.getId())) {
+                throw recurringInHierarchy();
+            }
+            applyRecurrence(task, request.getRecurrence());
+        }
 
         // Check if deadline passed and adjust status if needed logic could be adding
         // scheduled task or check here
         // Simple logic: if updated status isn't DONE and Deadline Passed -> MISSED
-        if (task.getDeadline() != null && task.getDeadline().isBefore(LocalDateTime.now())
+        // A recurring task's deadline is its first occurrence, so it never goes missed as a whole
+        if (!task.isRecurring() && task.getDeadline() != null && task.getDeadline().isBefore(LocalDateTime.now())
                 && task.getStatus() != Status.DONE) {
             task.setStatus(Status.MISSED_DEADLINE);
         }
+        trackCompletion(task, previousStatus);
+
+        Task saved = flushChecked(() -> taskRepository.saveAndFlush(task), expectedVersion);
+        Long ownerId = ownerOf(saved);
+        List<String> tags = request.getTags() != null
+                ? taskTagService.replaceTags(ownerId, id, request.getTags(), false)
+                : taskTagService.tagsOf(ownerId, id);
+        taskStatsService.recordChange(ownerId, before, TaskStatsSnapshot.of(saved));
+        afterWrite(saved, TaskEventType.UPDATED);
+        return withTags(TaskResponse.fromEntity(saved), tags);
+    }
+
+    public TaskResponse updateOccurrence(UserPrincipal currentUser, Long id, LocalDateTime occurrenceAt,
+            OccurrenceRequest request) {
+        Task task = findAccessible(currentUser, id, ListRole.EDITOR);
+        if (!task.isRecurring() || !TaskOccurrenceService.isOccurrence(task, occurrenceAt)) {
+            throw new ResourceNotFoundException("Occurrence not found");
+        }
 
-        return TaskResponse.fromEntity(taskRepository.save(task));
+        TaskOccurrence override = taskOccurrenceService.saveOverride(task, occurrenceAt, request);
+        afterWrite(task, TaskEventType.UPDATED);
+        return TaskResponse.forOccurrence(task, occurrenceAt, override.getStatus());
     }
 
-    public void deleteTask(UserPrincipal currentUser, Long id) {
+    public BulkUpdateResponse bulkUpdate(UserPrincipal currentUser,
+            Priority priority,
+            Status status,
+            LocalDateTime deadlineFrom,
+            LocalDateTime deadlineTo,
+            BulkUpdateRequest request) {
+        if (request.getPriority() == null && request.getStatus() == null) {
+            throw new AppException("Nothing to update: set a priority and/or a status",
+                    HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+
+        Long userId = currentUser.getId();
+        int updated = taskRepository.bulkUpdateFiltered(userId, priority, status, deadlineFrom, deadlineTo,
+                request.getPriority(), request.getStatus(), Status.DONE, Status.MISSED_DEADLINE,
+                LocalDateTime.now());
+        if (updated > 0) {
+            if (request.getStatus() != null)
+                taskStatsService.rebuildUser(userId);
+            taskQueryCoalescer.invalidate(userId);
+            taskPageCache.invalidate(userId);
+        }
+        return new BulkUpdateResponse(updated);
+    }
+
+    public void deleteTask(UserPrincipal currentUser, Long id, Long expectedVersion) {
+        Task task = findAccessible(currentUser, id, ListRole.EDITOR);
+        checkVersion(task, expectedVersion);
+        if (taskHierarchyService.hasChildren(task.getId())) {
+            deleteSubtree(task, expectedVersion);
+            return;
+        }
+        flushChecked(() -> {
+            taskRepository.delete(task);
+            taskRepository.flush();
+            return task;
+        }, expectedVersion);
+        taskStatsService.recordChange(ownerOf(task), TaskStatsSnapshot.of(task), null);
+        afterWrite(task, TaskEventType.DELETED);
+    }
+
+    // Subtasks go with their parent: one statement for the descendants, then the versioned delete of the root
+    private void deleteSubtree(Task task, Long expectedVersion) {
+        List<Task> subtree = taskRepository.findSubtree(task.getId());
+        taskRepository.deleteDescendants(task.getId());
+        flushChecked(() -> {
+            taskRepository.delete(task);
+            taskRepository.flush();
+            return task;
+        }, expectedVersion);
+        taskStatsService.recordRemoval(ownerOf(task), subtree.stream().map(TaskStatsSnapshot::of).toList());
+        for (Task deleted : subtree) {
+            afterWrite(deleted, TaskEventType.DELETED);
+        }
+    }
+
+    private Task findParent(UserPrincipal currentUser, Long parentId) {
+        Task parent = taskRepository.findById(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parent task not found"));
+        checkAccess(currentUser, parent, ListRole.EDITOR);
+        if (parent.isRecurring()) {
+            throw recurringInHierarchy();
+        }
+        return parent;
+    }
+
+    private Task findAccessible(UserPrincipal currentUser, Long id, ListRole role) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Task not found"));
+        checkAccess(currentUser, task, role);
+        return task;
+    }
+
+    // The owner always has access; members of the task's list need the role. Memberships are
+    // cached per user, so neither case runs a query once the user's lists are loaded.
+    private void checkAccess(UserPrincipal currentUser, Task task, ListRole role) {
+        if (!ownerOf(task).equals(currentUser.getId())
+                && !taskListAccess.allows(currentUser.getId(), task.getListId(), role)) {
+            throw new ForbiddenException("Access denied");
+        }
+    }
+
+    private static Long ownerOf(Task task) {
+        return task.getOwner().getId();
+    }
+
+    private static AppException recurringInHierarchy() {
+        return new AppException("Recurring tasks cannot have or be subtasks", HttpStatus.BAD_REQUEST,
+                "VALIDATION_ERROR");
+    }
 
-        if (!task.getOwner().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Access denied");
+    private void applyRecurrence(Task task, RecurrenceRule rule) {
+        if (rule == null)
+            return;
+        if (task.getDeadline() == null) {
+            throw new AppException("A recurring task needs a deadline for its first occurrence",
+                    HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
         }
-        taskRepository.delete(task);
+        task.setRecurrenceFrequency(rule.getFrequency());
+        task.setRecurrenceInterval(rule.getInterval());
+        task.setRecurrenceUntil(rule.getUntil());
+    }
+
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new AppException("Task has been modified since it was read",
+                    HttpStatus.PRECONDITION_FAILED, "PRECONDITION_FAILED");
+        }
+    }
+
+    // Flushing here turns a concurrent commit between our read and write, caught by the
+    // version check in the UPDATE/DELETE, into a response instead of a failed commit
+    private static Task flushChecked(Supplier<Task> write, Long expectedVersion) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException ex) {
+            if (expectedVersion != null) {
+                throw new AppException("Task has been modified since it was read",
+                        HttpStatus.PRECONDITION_FAILED, "PRECONDITION_FAILED");
+            }
+            throw new AppException("Task was modified concurrently, please retry", HttpStatus.CONFLICT, "CONFLICT");
+        }
+    }
+
+    private void trackCompletion(Task task, Status previousStatus) {
+        if (task.getStatus() != Status.DONE)
+            task.setCompletedAt(null);
+        else if (previousStatus != Status.DONE)
+            task.setCompletedAt(LocalDateTime.now());
+    }
+
+    // Concurrent creates can share a rank; ordering by id as well keeps pages stable
+    private static Pageable withRankTieBreak(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("manualRank") == null || sort.getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by("id")));
+    }
+
+    private static TaskResponse withTags(TaskResponse response, List<String> tags) {
+        response.setTags(tags);
+        return response;
+    }
+
+    private void afterWrite(Task task, TaskEventType type) {
+        Long userId = task.getOwner().getId();
+        taskQueryCoalescer.invalidate(userId);
+        taskPageCache.invalidate(userId);
+        if (type == TaskEventType.DELETED) {
+            taskTagService.forget(userId, task.getId());
+        }
+
+        TaskEvent event = TaskEvent.of(task, type);
+        AfterCommit.run(() -> taskEventLog.publish(event));
+
+        long taskId = task.getId();
+        LocalDateTime deadline = task.getDeadline();
+        boolean remind = type != TaskEventType.DELETED && deadline != null && task.getStatus() != Status.DONE
+                && !task.isRecurring();
+        AfterCommit.run(() -> {
+            if (remind) {
+                deadlineReminderService.schedule(taskId, userId, deadline);
+            } else {
+                deadlineReminderService.cancel(taskId);
+            }
+        });
     }
 }
@@ -0,0 +1,219 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.TaskTag;
+import com.example.todo.repository.TaskTagRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory tag index: for each user, one compressed bitmap of task ids per tag.
+ *
+ * A user's bitmaps are built from {@code task_tags} on first use and then kept
+ * current by TaskTagService once each write commits. Boolean tag queries are
+ * answered with bitmap algebra, so the database only sees the resulting ids.
+ * Entries expire a fixed time after loading, however often they are read or
+ * updated, which bounds how long writes made by another instance stay
+ * invisible.
+ */
+@Component
+public class TaskTagIndex {
+
+    private final TaskTagRepository taskTagRepository;
+    private final AsyncCache<Long, UserTags> users;
+
+    @Autowired
+    public TaskTagIndex(TaskTagRepository taskTagRepository, MeterRegistry meterRegistry,
+            @Value("${app.tags.index-max-users}") long maxUsers,
+            @Value("${app.tags.index-expire-minutes}") long expireMinutes) {
+        this(taskTagRepository, meterRegistry, maxUsers, expireMinutes, Ticker.systemTicker());
+    }
+
+    TaskTagIndex(TaskTagRepository taskTagRepository, MeterRegistry meterRegistry, long maxUsers,
+            long expireMinutes, Ticker ticker) {
+        this.taskTagRepository = taskTagRepository;
+        this.users = Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(expireMinutes))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, users.synchronous(), "tasks.tags.index");
+    }
+
+    // The load runs on the calling thread after a placeholder is in the map, not inside a map
+    // compute: that holds a monitor, which would pin a virtual thread to its carrier for the query.
+    // Concurrent callers for the same user wait on the placeholder.
+    UserTags forUser(Long userId) {
+        CompletableFuture<UserTags> placeholder = new CompletableFuture<>();
+        CompletableFuture<UserTags> existing = users.asMap().putIfAbsent(userId, placeholder);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            placeholder.complete(load(userId));
+        } catch (RuntimeException | Error ex) {
+            // A failed future is removed from the cache, so the next call loads again
+            placeholder.completeExceptionally(ex);
+            throw ex;
+        }
+        return await(users.asMap().getOrDefault(userId, placeholder));
+    }
+
+    // Only users already in memory are updated; the others are read fresh on first use.
+    // A write that commits while its user is loading is applied once the load completes, so none
+    // is lost. The entry is changed in place rather than replaced, which would restart its expiry.
+    void setTags(Long userId, Long taskId, Collection<String> tags) {
+        CompletableFuture<UserTags> index = users.getIfPresent(userId);
+        if (index != null) {
+            index.thenAccept(loaded -> loaded.set(taskId, tags));
+        }
+    }
+
+    private static UserTags await(CompletableFuture<UserTags> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private UserTags load(Long userId) {
+        UserTags index = new UserTags();
+        for (TaskTag tag : taskTagRepository.findByUserId(userId)) {
+            index.tasksByTag.computeIfAbsent(tag.getName(), name -> new Roaring64NavigableMap())
+                    .addLong(tag.getTaskId());
+        }
+        index.tasksByTag.values().forEach(Roaring64NavigableMap::runOptimize);
+        return index;
+    }
+
+    static final class UserTags {
+
+        private final Map<String, Roaring64NavigableMap> tasksByTag = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        List<String> tagsOf(long taskId) {
+            lock.lock();
+            try {
+                if (tasksByTag.isEmpty()) {
+                    return List.of();
+                }
+                List<String> tags = null;
+                for (Map.Entry<String, Roaring64NavigableMap> entry : tasksByTag.entrySet()) {
+                    if (entry.getValue().contains(taskId)) {
+                        if (tags == null) {
+                            tags = new ArrayList<>(2);
+                        }
+                        tags.add(entry.getKey());
+                    }
+                }
+                if (tags == null) {
+                    return List.of();
+                }
+                tags.sort(null);
+                return tags;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void set(long taskId, Collection<String> tags) {
+            lock.lock();
+            try {
+                tasksByTag.values().removeIf(ids -> {
+                    ids.removeLong(taskId);
+                    return ids.isEmpty();
+                });
+                for (String tag : tags) {
+                    tasksByTag.computeIfAbsent(tag, name -> new Roaring64NavigableMap()).addLong(taskId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Match evaluate(TagFilter filter) {
+            lock.lock();
+            try {
+                Roaring64NavigableMap result = null;
+                for (String tag : filter.getAllOf()) {
+                    Roaring64NavigableMap ids = tasksByTag.get(tag);
+                    if (ids == null) {
+                        return new Match(new Roaring64NavigableMap(), false);
+                    }
+                    if (result == null) {
+                        result = copy(ids);
+                    } else {
+                        result.and(ids);
+                    }
+                }
+                if (!filter.getAnyOf().isEmpty()) {
+                    Roaring64NavigableMap any = union(filter.getAnyOf());
+                    if (result == null) {
+                        result = any;
+                    } else {
+                        result.and(any);
+                    }
+                }
+                Roaring64NavigableMap none = union(filter.getNoneOf());
+                if (result == null) {
+                    return new Match(none, true);
+                }
+                result.andNot(none);
+                return new Match(result, false);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Roaring64NavigableMap union(Collection<String> tags) {
+            Roaring64NavigableMap union = new Roaring64NavigableMap();
+            for (String tag : tags) {
+                Roaring64NavigableMap ids = tasksByTag.get(tag);
+                if (ids != null) {
+                    union.or(ids);
+                }
+            }
+            return union;
+        }
+
+        private static Roaring64NavigableMap copy(Roaring64NavigableMap ids) {
+            Roaring64NavigableMap copy = new Roaring64NavigableMap();
+            copy.or(ids);
+            return copy;
+        }
+    }
+
+    // Result of a tag query: the matching task ids, or with excluded set the ids to leave out
+    @Getter
+    @AllArgsConstructor
+    static class Match {
+        private final Roaring64NavigableMap ids;
+        private final boolean excluded;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskTag;
+import com.example.todo.repository.TaskRepository;
+import com.example.todo.repository.TaskTagRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Task tags: rows in {@code task_tags} written with the task, and the
+ * {@link TaskTagIndex} used to render and filter them without joins.
+ */
+@Service
+public class TaskTagService {
+
+    private static final String INSERT_SQL = "INSERT INTO task_tags (task_id, user_id, name) VALUES (?, ?, ?)";
+
+    private final TaskTagRepository taskTagRepository;
+    private final TaskRepository taskRepository;
+    private final TaskTagIndex taskTagIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxFilterIds;
+
+    public TaskTagService(TaskTagRepository taskTagRepository, TaskRepository taskRepository,
+            TaskTagIndex taskTagIndex, JdbcTemplate jdbcTemplate,
+            @Value("${app.tags.max-filter-ids}") int maxFilterIds) {
+        this.taskTagRepository = taskTagRepository;
+        this.taskRepository = taskRepository;
+        this.taskTagIndex = taskTagIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxFilterIds = maxFilterIds;
+    }
+
+    // Replaces the task's tags in the current transaction; the index follows on commit
+    public List<String> replaceTags(Long userId, Long taskId, List<String> tags, boolean newTask) {
+        List<String> names = TagFilter.normalizeAll(tags);
+        if (!newTask) {
+            taskTagRepository.deleteByTaskId(taskId);
+        }
+        if (!names.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, names, names.size(), (ps, name) -> {
+                ps.setLong(1, taskId);
+                ps.setLong(2, userId);
+                ps.setString(3, name);
+            });
+        }
+        AfterCommit.run(() -> taskTagIndex.setTags(userId, taskId, names));
+        return names;
+    }
+
+    // The rows go with the task through the foreign key
+    public void forget(Long userId, Long taskId) {
+        AfterCommit.run(() -> taskTagIndex.setTags(userId, taskId, List.of()));
+    }
+
+    public List<String> tagsOf(Long userId, Long taskId) {
+        return taskTagIndex.forUser(userId).tagsOf(taskId);
+    }
+
+    public Function<Task, TaskResponse> renderer(Long userId) {
+        TaskTagIndex.UserTags tags = taskTagIndex.forUser(userId);
+        return task -> {
+            TaskResponse response = TaskResponse.fromEntity(task);
+            response.setTags(tags.tagsOf(task.getId()));
+            return response;
+        };
+    }
+
+    public void fillTags(Long userId, List<TaskResponse> tasks) {
+        TaskTagIndex.UserTags tags = taskTagIndex.forUser(userId);
+        for (TaskResponse task : tasks) {
+            task.setTags(tags.tagsOf(task.getId()));
+        }
+    }
+
+    // findFiltered with the tag terms resolved to ids in memory first. Sets too large to send as
+    // an IN list (the placeholder limit, and padding doubles it) are filtered by the database instead.
+    public Page<Task> findFiltered(TaskQuery query) {
+        TaskTagIndex.Match match = taskTagIndex.forUser(query.getUserId()).evaluate(query.getTags());
+        if (match.getIds().isEmpty()) {
+            return match.isExcluded()
+                    ? taskRepository.findFiltered(query.getUserId(), query.getPriority(), query.getStatus(),
+                            query.getDeadlineFrom(), query.getDeadlineTo(), query.getPageable())
+                    : Page.empty(query.getPageable());
+        }
+        if (match.getIds().getLongCardinality() > maxFilterIds) {
+            return taskRepository.findAll(taggedWith(query), query.getPageable());
+        }
+        List<Long> ids = Arrays.stream(match.getIds().toArray()).boxed().toList();
+        return match.isExcluded()
+                ? taskRepository.findFilteredNotIn(query.getUserId(), query.getPriority(), query.getStatus(),
+                        query.getDeadlineFrom(), query.getDeadlineTo(), ids, query.getPageable())
+                : taskRepository.findFilteredIn(query.getUserId(), query.getPriority(), query.getStatus(),
+                        query.getDeadlineFrom(), query.getDeadlineTo(), ids, query.getPageable());
+    }
+
+    // The whole filter with each tag term as an EXISTS probe of the task_tags primary key
+    private static Specification<Task> taggedWith(TaskQuery query) {
+        TagFilter tags = query.getTags();
+        return (task, criteria, cb) -> {
+            List<Predicate> where = new ArrayList<>();
+            where.add(cb.equal(task.get("owner").get("id"), query.getUserId()));
+            if (query.getPriority() != null)
+                where.add(cb.equal(task.get("priority"), query.getPriority()));
+            if (query.getStatus() != null)
+                where.add(cb.equal(task.get("status"), query.getStatus()));
+            if (query.getDeadlineFrom() != null)
+                where.add(cb.greaterThanOrEqualTo(task.get("deadline"), query.getDeadlineFrom()));
+            if (query.getDeadlineTo() != null)
+                where.add(cb.lessThanOrEqualTo(task.get("deadline"), query.getDeadlineTo()));
+            for (String tag : tags.getAllOf()) {
+                where.add(cb.exists(tagged(task, criteria, cb, List.of(tag))));
+            }
+            if (!tags.getAnyOf().isEmpty())
+                where.add(cb.exists(tagged(task, criteria, cb, tags.getAnyOf())));
+            if (!tags.getNoneOf().isEmpty())
+                where.add(cb.not(cb.exists(tagged(task, criteria, cb, tags.getNoneOf()))));
+            return cb.and(where.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Subquery<Integer> tagged(Root<Task> task, CriteriaQuery<?> criteria, CriteriaBuilder cb,
+            Collection<String> names) {
+        Subquery<Integer> subquery = criteria.subquery(Integer.class);
+        Root<TaskTag> tag = subquery.from(TaskTag.class);
+        return subquery.select(cb.literal(1))
+                .where(cb.equal(tag.get("taskId"), task.get("id")), tag.get("name").in(names));
+    }
+}
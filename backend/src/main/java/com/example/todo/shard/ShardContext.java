@@ -0,0 +1,32 @@
+package com.example.todo.shard;
+
+/**
+ * The shard the current thread talks to. {@link ShardRoutingDataSource} reads
+ * it when a connection is opened, so it has to be set before a transaction
+ * starts; without one, connections go to the directory database.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    static String set(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
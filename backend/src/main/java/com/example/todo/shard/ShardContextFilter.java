@@ -0,0 +1,71 @@
+package com.example.todo.shard;
+
+import com.example.todo.security.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Routes the rest of an authenticated request to the shard of its user. Runs
+ * after authentication, whose user lookup still goes to the directory, and
+ * skips the auth endpoints, which only touch the directory. Requests for one
+ * task go to the shard its id belongs to instead, which differs from the
+ * user's own when the task is on a list shared by a user on another shard.
+ * This pins tasks to the shard that created them; see {@link ShardingProperties}.
+ *
+ * Deliberately not a bean: Boot would also register it as a servlet filter
+ * ahead of the security chain, where no user is known yet.
+ */
+public class ShardContextFilter extends OncePerRequestFilter {
+
+    private static final String TASK_PATH = "/api/tasks/";
+
+    private final ShardRouter shardRouter;
+
+    public ShardContextFilter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String shard = taskShard(request);
+        String previous = ShardContext.set(shard != null ? shard : shardRouter.shardOf(user.getId()));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    // The shard of {id} in /api/tasks/{id}[/...], or null for any other path
+    private String taskShard(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(TASK_PATH)) {
+            return null;
+        }
+        int end = path.indexOf('/', TASK_PATH.length());
+        String id = path.substring(TASK_PATH.length(), end < 0 ? path.length() : end);
+        if (id.isEmpty() || id.length() > 18 || !id.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return shardRouter.shardOfTask(Long.parseLong(id));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.todo.shard;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Maps user ids to shards and runs work against a given shard.
+ *
+ * With sharding disabled there is a single shard, {@link #DEFAULT_SHARD}, and
+ * all data stays on the primary datasource.
+ */
+@Component
+public class ShardRouter {
+
+    public static final String DEFAULT_SHARD = "default";
+
+    // Task ids are allocated from a disjoint range per shard so they stay unique across shards
+    static final long ID_RANGE = 1L << 40;
+
+    private final List<String> shards;
+    private final String[] bucketOwners;
+
+    public ShardRouter(ShardingProperties properties) {
+        if (!properties.isEnabled()) {
+            this.shards = List.of(DEFAULT_SHARD);
+            this.bucketOwners = new String[] { DEFAULT_SHARD };
+            return;
+        }
+        if (properties.getBuckets() < 1 || properties.getShards().isEmpty()) {
+            throw new IllegalStateException("app.sharding needs at least one bucket and one shard");
+        }
+
+        List<String> names = new ArrayList<>();
+        String[] owners = new String[properties.getBuckets()];
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            if (names.contains(shard.getName())) {
+                throw new IllegalStateException("Duplicate shard name " + shard.getName());
+            }
+            names.add(shard.getName());
+            for (int bucket : parseBuckets(shard.getBuckets(), owners.length)) {
+                if (owners[bucket] != null) {
+                    throw new IllegalStateException("Bucket " + bucket + " is assigned to both " + owners[bucket]
+                            + " and " + shard.getName());
+                }
+                owners[bucket] = shard.getName();
+            }
+        }
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            if (owners[bucket] == null) {
+                throw new IllegalStateException("Bucket " + bucket + " is not assigned to any shard");
+            }
+        }
+        this.shards = Collections.unmodifiableList(names);
+        this.bucketOwners = owners;
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardOf(long userId) {
+        return bucketOwners[(int) Math.floorMod(userId, (long) bucketOwners.length)];
+    }
+
+    // Tasks of shared lists are read by their members too, so a task's shard follows from its id range
+    public String shardOfTask(long taskId) {
+        long index = (taskId - 1) / ID_RANGE;
+        return taskId > 0 && index < shards.size() ? shards.get((int) index) : null;
+    }
+
+    public long firstTaskId(String shard) {
+        return shards.indexOf(shard) * ID_RANGE + 1;
+    }
+
+    public void runOn(String shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T callOn(String shard, Supplier<T> work) {
+        String previous = ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public <T> T callForUser(long userId, Supplier<T> work) {
+        return callOn(shardOf(userId), work);
+    }
+
+    // Groups items by the shard of their user, keeping shard order stable
+    public <T> Map<String, List<T>> partition(List<T> items, Function<T, Long> userId) {
+        Map<String, List<T>> byShard = new LinkedHashMap<>();
+        for (T item : items) {
+            byShard.computeIfAbsent(shardOf(userId.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return byShard;
+    }
+
+    private static int[] parseBuckets(String spec, int buckets) {
+        if (spec == null || spec.isBlank()) {
+            return new int[0];
+        }
+        return Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .flatMapToInt(range -> {
+                    int dash = range.indexOf('-');
+                    int from = Integer.parseInt(dash < 0 ? range : range.substring(0, dash).trim());
+                    int to = dash < 0 ? from : Integer.parseInt(range.substring(dash + 1).trim());
+                    if (from < 0 || to >= buckets || from > to) {
+                        throw new IllegalStateException("Invalid bucket range " + range);
+                    }
+                    return IntStream.rangeClosed(from, to);
+                })
+                .toArray();
+    }
+}
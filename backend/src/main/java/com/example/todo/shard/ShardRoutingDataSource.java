@@ -0,0 +1,37 @@
+package com.example.todo.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary datasource in sharded mode: the directory database by default, the
+ * shard named by {@link ShardContext} while one is selected.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(DataSource directory, Map<String, DataSource> shards) {
+        setDefaultTargetDataSource(directory);
+        setTargetDataSources(Map.copyOf(shards));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public Map<Object, DataSource> getShards() {
+        return getResolvedDataSources();
+    }
+
+    public DataSource getDirectory() {
+        return getResolvedDefaultDataSource();
+    }
+
+    // The database holding users and shared lists, whichever shard the current thread is on
+    public static DataSource directoryOf(DataSource dataSource) {
+        return dataSource instanceof ShardRoutingDataSource routing ? routing.getDirectory() : dataSource;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.todo.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sharded storage, enabled with {@code app.sharding.enabled=true}.
+ *
+ * {@code spring.datasource} becomes the directory database ({@code users},
+ * {@code oauth_credentials}); every shard from {@link ShardingProperties} gets
+ * its own pool. All databases run the same Flyway migrations, so one
+ * persistence unit validates against any of them, and tables that belong to
+ * the other side simply stay empty.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    @Primary
+    public ShardRoutingDataSource dataSource(DataSourceProperties directoryProperties, ShardingProperties sharding) {
+        DataSource directory = directoryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : sharding.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shard.getName());
+            shards.put(shard.getName(), dataSource);
+        }
+        return new ShardRoutingDataSource(directory, shards);
+    }
+
+    // Boot migrates the primary (directory) datasource; bring every shard to the same version
+    @Bean
+    public FlywayMigrationStrategy shardedMigration(ShardRoutingDataSource dataSource, ShardRouter router) {
+        return flyway -> {
+            flyway.migrate();
+            for (String shard : router.shards()) {
+                DataSource shardDataSource = dataSource.getShards().get(shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shardDataSource)
+                        .load()
+                        .migrate();
+                reserveTaskIdRange(shardDataSource, router.firstTaskId(shard));
+                log.info("Shard {} migrated", shard);
+            }
+        };
+    }
+
+    private static void reserveTaskIdRange(DataSource dataSource, long firstId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM tasks", Long.class);
+        if (maxId != null && maxId >= firstId) {
+            return;
+        }
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not read shard database metadata", ex);
+        }
+        jdbcTemplate.execute("MySQL".equals(product)
+                ? "ALTER TABLE tasks AUTO_INCREMENT = " + firstId
+                : "ALTER TABLE tasks ALTER COLUMN id RESTART WITH " + firstId);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.todo.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shard layout under {@code app.sharding}. User ids are hashed into a fixed
+ * number of buckets and each shard owns a set of bucket ranges.
+ *
+ * Task ids come from the range of the shard that created them, and requests
+ * for a single task are routed by that range. A user's tasks are therefore
+ * pinned to their shard: reassigning a bucket whose users already have tasks
+ * makes those tasks unreachable. Moving users to another shard requires
+ * copying their tasks there under new ids from its range (with their
+ * task_tree, task_tags and task_events rows), not only a bucket change.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    // Fixed for the lifetime of the data; changing it remaps every user
+    private int buckets = 1024;
+
+    // Append new shards at the end: a shard's position determines its task id range
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String buckets; // e.g. "0-511" or "0-255,768-1023"
+    }
+}
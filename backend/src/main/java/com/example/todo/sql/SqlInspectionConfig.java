@@ -0,0 +1,57 @@
+package com.example.todo.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Statement counting, timing and N+1 detection for every datasource bean.
+ *
+ * Datasources are proxied by class so beans injected by their concrete type,
+ * such as the sharding router, keep working.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.inspection-enabled", havingValue = "true")
+public class SqlInspectionConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlInspectingDataSourcePostProcessor(
+            @Value("${app.sql.slow-ms}") long slowMillis) {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(slowMillis);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice((MethodInterceptor) invocation -> {
+                    Object result = invocation.proceed();
+                    return result instanceof Connection connection ? recorder.wrap(connection) : result;
+                });
+                return factory.getProxy();
+            }
+        };
+    }
+
+    // Ahead of the security chain, whose user lookup is part of every authenticated request
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(MeterRegistry meterRegistry,
+            @Value("${app.sql.repeat-threshold}") int repeatThreshold) {
+        FilterRegistrationBean<SqlStatementFilter> registration = new FilterRegistrationBean<>(
+                new SqlStatementFilter(meterRegistry, repeatThreshold));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.todo.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the SQL statements of each request into a {@link StatementLog},
+ * records the count per endpoint and warns when one statement repeats often
+ * enough to look like an N+1 query. The log is left on the request under
+ * {@link #STATEMENTS_ATTRIBUTE} for tests.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_ATTRIBUTE = SqlStatementFilter.class.getName() + ".statements";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int repeatThreshold;
+    private final Map<String, DistributionSummary> perRequest = new ConcurrentHashMap<>();
+
+    public SqlStatementFilter(MeterRegistry meterRegistry, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementLog statements = StatementLog.bind();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementLog.unbind();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, StatementLog statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        perRequest.computeIfAbsent(request.getMethod() + ' ' + uri, key -> DistributionSummary
+                .builder("http.server.requests.sql")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry))
+                .record(statements.count());
+
+        for (Map.Entry<String, Integer> execution : statements.executions().entrySet()) {
+            if (execution.getValue() >= repeatThreshold) {
+                Counter.builder("http.server.requests.sql.repeated")
+                        .description("Requests that ran one statement often enough to look like N+1")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(meterRegistry)
+                        .increment();
+                log.warn("Possible N+1 in {} {}: {} executions of {}", request.getMethod(), uri,
+                        execution.getValue(), execution.getKey());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} {} ran {} SQL statements in {} ms", request.getMethod(), uri, statements.count(),
+                    TimeUnit.NANOSECONDS.toMillis(statements.nanos()));
+        }
+    }
+}
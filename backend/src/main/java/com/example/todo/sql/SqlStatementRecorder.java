@@ -0,0 +1,141 @@
+package com.example.todo.sql;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps JDBC connections so every statement executed through them is counted
+ * and timed into the thread's {@link StatementLog}. Statements slower than
+ * the threshold are logged with their bind shape: the JDBC type of each
+ * parameter, never its value.
+ */
+public class SqlStatementRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementRecorder.class);
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final long slowNanos;
+
+    public SqlStatementRecorder(long slowMillis) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    public Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, new ConnectionHandler(connection));
+    }
+
+    void record(String sql, String[] bindTypes, int bindCount, long durationNanos) {
+        StatementLog statements = StatementLog.current();
+        if (statements != null) {
+            statements.record(sql, durationNanos);
+        }
+        if (durationNanos >= slowNanos) {
+            log.warn("Slow SQL ({} ms): {} binds={}", TimeUnit.NANOSECONDS.toMillis(durationNanos), sql,
+                    bindCount == 0 ? "[]" : Arrays.toString(Arrays.copyOf(bindTypes, bindCount)));
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementRecorder.class.getClassLoader(), new Class<?>[] { type },
+                handler));
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // Identity semantics for the proxy itself, so it works as a map key
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlStatementRecorder.invoke(proxy, connection, method, args);
+            String name = method.getName();
+            if (name.equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, result, new StatementHandler(result, (String) args[0]));
+            }
+            if (name.equals("prepareCall")) {
+                return proxy(CallableStatement.class, result, new StatementHandler(result, (String) args[0]));
+            }
+            if (name.equals("createStatement")) {
+                return proxy(Statement.class, result, new StatementHandler(result, null));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object statement;
+        private final String sql;
+        private String[] bindTypes;
+        private int bindCount;
+
+        StatementHandler(Object statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                // Plain statements carry their SQL as the argument
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                long start = System.nanoTime();
+                try {
+                    return SqlStatementRecorder.invoke(proxy, statement, method, args);
+                } finally {
+                    record(executed != null ? executed : "<batch>", bindTypes, bindCount, System.nanoTime() - start);
+                }
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name, args[1]);
+            } else if (name.equals("clearParameters")) {
+                bindCount = 0;
+            }
+            return SqlStatementRecorder.invoke(proxy, statement, method, args);
+        }
+
+        private void bind(int index, String setter, Object value) {
+            if (bindTypes == null || bindTypes.length < index) {
+                bindTypes = bindTypes == null ? new String[Math.max(index, 8)]
+                        : Arrays.copyOf(bindTypes, Math.max(index, bindTypes.length * 2));
+            }
+            bindCount = Math.max(bindCount, index);
+            bindTypes[index - 1] = setter.equals("setNull") || value == null ? "NULL"
+                    : setter.equals("setObject") ? value.getClass().getSimpleName()
+                    : setter.substring(3);
+        }
+    }
+}
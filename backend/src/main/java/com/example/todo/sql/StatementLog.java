@@ -0,0 +1,51 @@
+package com.example.todo.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed on one thread while bound, normally for the
+ * duration of one HTTP request (see {@link SqlStatementFilter}).
+ */
+public final class StatementLog {
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private int count;
+    private long nanos;
+
+    public static StatementLog bind() {
+        StatementLog log = new StatementLog();
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    static StatementLog current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, long durationNanos) {
+        count++;
+        nanos += durationNanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /** Statement text to number of executions, in first-execution order. */
+    public Map<String, Integer> executions() {
+        return Collections.unmodifiableMap(executions);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.todo.stats;
+
+import com.example.todo.dto.DailyStatsResponse;
+import com.example.todo.dto.ProductivityResponse;
+import com.example.todo.entity.TaskDailyStats;
+import com.example.todo.exception.AppException;
+import com.example.todo.repository.TaskDailyStatsRepository;
+import com.example.todo.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code task_daily_stats} and answers analytics from it alone.
+ *
+ * A task contributes one creation on the day it was created and, while it is
+ * DONE, one completion (on time or late, with its lateness) on the day it was
+ * completed. Every change applies the difference between the contribution
+ * before and after it, in the same transaction as the task write, so reads
+ * never touch {@code tasks}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TaskStatsService {
+
+    static final int MAX_RANGE_DAYS = 366;
+
+    private final TaskDailyStatsRepository statsRepository;
+
+    public void recordChange(Long userId, TaskStatsSnapshot before, TaskStatsSnapshot after) {
+        Map<LocalDate, long[]> deltas = new TreeMap<>();
+        contribute(deltas, before, -1);
+        contribute(deltas, after, 1);
+        apply(userId, deltas);
+    }
+
+    // Deleted tasks, e.g. a whole subtree: their contributions are summed into one update per day
+    public void recordRemoval(Long userId, Collection<TaskStatsSnapshot> removed) {
+        Map<LocalDate, long[]> deltas = new TreeMap<>();
+        for (TaskStatsSnapshot task : removed) {
+            contribute(deltas, task, -1);
+        }
+        apply(userId, deltas);
+    }
+
+    private void apply(Long userId, Map<LocalDate, long[]> deltas) {
+        deltas.forEach((day, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0 || delta[3] != 0 || delta[4] != 0) {
+                statsRepository.increment(userId, day, (int) delta[0], (int) delta[1], (int) delta[2],
+                        (int) delta[3], delta[4]);
+            }
+        });
+    }
+
+    // Used after set-based updates, where the previous state of each row is not known
+    public void rebuildUser(Long userId) {
+        statsRepository.deleteUser(userId);
+        statsRepository.insertUserFromTasks(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public ProductivityResponse getProductivity(UserPrincipal currentUser, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new AppException("Range must be between 1 and " + MAX_RANGE_DAYS + " days",
+                    HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
+        }
+
+        List<TaskDailyStats> days = statsRepository.findByUserIdAndDayBetweenOrderByDay(currentUser.getId(), from, to);
+        long created = 0, completed = 0, onTime = 0, late = 0, lateSeconds = 0;
+        for (TaskDailyStats day : days) {
+            created += day.getCreated();
+            completed += day.getCompleted();
+            onTime += day.getCompletedOnTime();
+            late += day.getCompletedLate();
+            lateSeconds += day.getLateSeconds();
+        }
+
+        return ProductivityResponse.builder()
+                .from(from)
+                .to(to)
+                .created(created)
+                .completed(completed)
+                .completedOnTime(onTime)
+                .completedLate(late)
+                .onTimeRate(onTime + late > 0 ? (double) onTime / (onTime + late) : null)
+                .averageLatenessMinutes(late > 0 ? lateSeconds / 60.0 / late : null)
+                .days(days.stream().map(DailyStatsResponse::fromEntity).toList())
+                .build();
+    }
+
+    // Deltas per day: created, completed, completed on time, completed late, late seconds
+    private static void contribute(Map<LocalDate, long[]> deltas, TaskStatsSnapshot task, int sign) {
+        if (task == null) {
+            return;
+        }
+        if (task.getCreatedAt() != null) {
+            deltas.computeIfAbsent(task.getCreatedAt().toLocalDate(), day -> new long[5])[0] += sign;
+        }
+        if (task.getCompletedAt() != null) {
+            long[] delta = deltas.computeIfAbsent(task.getCompletedAt().toLocalDate(), day -> new long[5]);
+            delta[1] += sign;
+            if (task.getDeadline() != null) {
+                if (task.getCompletedAt().isAfter(task.getDeadline())) {
+                    delta[3] += sign;
+                    delta[4] += sign * Duration.between(task.getDeadline(), task.getCompletedAt()).toSeconds();
+                } else {
+                    delta[2] += sign;
+                }
+            }
+        }
+    }
+}
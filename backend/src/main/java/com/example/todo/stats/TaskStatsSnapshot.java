@@ -0,0 +1,21 @@
+package com.example.todo.stats;
+
+import com.example.todo.entity.Task;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a task that its daily rollup contribution depends on, captured
+ * before a change so the contribution can be taken back afterwards.
+ */
+@Value
+public class TaskStatsSnapshot {
+    LocalDateTime createdAt;
+    LocalDateTime completedAt;
+    LocalDateTime deadline;
+
+    public static TaskStatsSnapshot of(Task task) {
+        return new TaskStatsSnapshot(task.getCreatedAt(), task.getCompletedAt(), task.getDeadline());
+    }
+}
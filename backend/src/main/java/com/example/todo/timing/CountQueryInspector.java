@@ -0,0 +1,21 @@
+package com.example.todo.timing;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Marks the start of COUNT statements for {@link RequestTiming}. Registered
+ * with Hibernate through {@code hibernate.session_factory.statement_inspector};
+ * the SQL is returned unchanged.
+ */
+public class CountQueryInspector implements StatementInspector {
+
+    private static final String COUNT_PREFIX = "select count(";
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.regionMatches(true, 0, COUNT_PREFIX, 0, COUNT_PREFIX.length())) {
+            RequestTiming.countStarted();
+        }
+        return sql;
+    }
+}
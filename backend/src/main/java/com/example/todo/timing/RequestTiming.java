@@ -0,0 +1,120 @@
+package com.example.todo.timing;
+
+/**
+ * Per-request phase durations, collected on the request thread.
+ *
+ * {@link RequestTimingFilter} binds an instance for the duration of a request
+ * when timing is enabled. Instrumented code brackets a phase with
+ * {@link #start()} and {@link #stop(Phase, long)}; without a bound instance
+ * both are a thread-local read and allocate nothing. Repeated phases add up.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        JWT("jwt"),
+        USER("user"),
+        QUERY("query"),
+        COUNT("count"),
+        RENDER("render");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+
+        public String metric() {
+            return metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private long countStartedAt;
+
+    RequestTiming() {
+    }
+
+    /** Returns a start mark for {@link #stop}, or 0 when the request is not being timed. */
+    public static long start() {
+        return CURRENT.get() != null ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Phase phase, long start) {
+        if (start == 0L) {
+            return;
+        }
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (phase == Phase.QUERY && timing.countStartedAt > start) {
+            timing.nanos[Phase.QUERY.ordinal()] += timing.countStartedAt - start;
+            timing.nanos[Phase.COUNT.ordinal()] += now - timing.countStartedAt;
+        } else {
+            timing.nanos[phase.ordinal()] += now - start;
+        }
+        timing.countStartedAt = 0L;
+    }
+
+    static void countStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.countStartedAt = System.nanoTime();
+        }
+    }
+
+    static RequestTiming bind() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    void add(Phase phase, long durationNanos) {
+        nanos[phase.ordinal()] += durationNanos;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    /** Server-Timing value of the phases recorded so far plus {@code app} for the time since the request began. */
+    String serverTiming() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                appendMetric(header, phase.metric(), nanos[phase.ordinal()]);
+            }
+        }
+        return appendMetric(header, "app", elapsedNanos()).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long durationNanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        // Milliseconds with microsecond precision, without going through String.format
+        long micros = durationNanos / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        return header.append(fraction);
+    }
+}
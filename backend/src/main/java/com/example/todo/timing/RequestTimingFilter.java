@@ -0,0 +1,149 @@
+package com.example.todo.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times each request by phase and reports it as a {@code Server-Timing}
+ * header and a sampled key=value log line.
+ *
+ * Runs ahead of the security chain so JWT verification and the user lookup
+ * are covered. The header is added when the body starts, because the
+ * response is committed from then on. It therefore holds every phase up to
+ * serialization. The log line is written after the request and also carries
+ * {@code render}, the time spent writing the body. Requests slower than
+ * {@code app.timing.slow-ms} are always logged.
+ *
+ * Only registered when {@code app.timing.enabled} is set; otherwise every
+ * instrumented phase costs a single thread-local read.
+ */
+@Component
+@ConditionalOnProperty(name = "app.timing.enabled", havingValue = "true")
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final double logSampleRate;
+    private final long slowNanos;
+
+    public RequestTimingFilter(@Value("${app.timing.log-sample-rate}") double logSampleRate,
+            @Value("${app.timing.slow-ms}") long slowMillis) {
+        this.logSampleRate = logSampleRate;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.bind();
+        TimedResponse timedResponse = new TimedResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            RequestTiming.unbind();
+            timedResponse.bodyStarted();
+            timedResponse.bodyFinished();
+            long total = timing.elapsedNanos();
+            if (total >= slowNanos || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log(request, response, timing, total);
+            }
+        }
+    }
+
+    private static void log(HttpServletRequest request, HttpServletResponse response, RequestTiming timing,
+            long totalNanos) {
+        StringBuilder line = new StringBuilder(160)
+                .append("request_timing method=").append(request.getMethod())
+                .append(" path=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=").append(millis(totalNanos));
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            line.append(' ').append(phase.metric()).append("_ms=").append(millis(timing.nanos(phase)));
+        }
+        log.info(line.toString());
+    }
+
+    private static String millis(long nanos) {
+        return Long.toString(nanos / 1_000_000) + '.' + (nanos / 100_000 % 10);
+    }
+
+    // Adds the header just before the body is first touched, while headers can still be set
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private long renderStart;
+        private boolean finished;
+
+        TimedResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            bodyStarted();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            bodyStarted();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            bodyStarted();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            bodyStarted();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            bodyStarted();
+            super.sendError(sc);
+        }
+
+        void bodyStarted() {
+            if (renderStart != 0L) {
+                return;
+            }
+            renderStart = System.nanoTime();
+            if (!isCommitted()) {
+                setHeader(SERVER_TIMING, timing.serverTiming());
+            }
+        }
+
+        void bodyFinished() {
+            if (!finished) {
+                finished = true;
+                timing.add(RequestTiming.Phase.RENDER, System.nanoTime() - renderStart);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+-- Responses to task writes sent with an Idempotency-Key header, replayed when a
+-- client retries with the same key. Rows live on the shard of their user.
+-- response_status stays NULL while the first request is still running.
+CREATE TABLE idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idem_key VARCHAR(255) NOT NULL,
+    fingerprint CHAR(64) NOT NULL,
+    response_status SMALLINT NULL,
+    response_content_type VARCHAR(255) NULL,
+    response_location VARCHAR(255) NULL,
+    response_etag VARCHAR(64) NULL,
+    response_body MEDIUMBLOB NULL,
+    expires_at TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (user_id, idem_key),
+    KEY idx_idempotency_keys_expires (expires_at)
+);
@@ -0,0 +1,12 @@
+-- Manual (drag-and-drop) order. Ranks are base-62 fractional keys compared
+-- byte by byte, so moving a task rewrites only its own rank. Existing tasks are
+-- ranked by creation order as four-digit integer keys ('d' + base-36 digits,
+-- which are also valid base-62 digits).
+ALTER TABLE tasks ADD COLUMN manual_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+UPDATE tasks t
+JOIN (SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY id) AS n FROM tasks) ranked ON ranked.id = t.id
+SET t.manual_rank = CONCAT('d', LPAD(CONV(ranked.n, 10, 36), 4, '0'));
+
+ALTER TABLE tasks MODIFY manual_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+CREATE INDEX idx_tasks_user_rank ON tasks(user_id, manual_rank);
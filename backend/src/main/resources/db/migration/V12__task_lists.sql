@@ -0,0 +1,24 @@
+-- Shared task lists. Lists and their members live on the directory database
+-- next to users; a list's tasks stay on its owner's shard and point back to it
+-- through tasks.list_id. The member primary key leads with user_id, so all
+-- lists of one user come from a single range scan.
+CREATE TABLE task_lists (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    KEY idx_task_lists_owner (owner_id)
+);
+
+CREATE TABLE task_list_members (
+    user_id BIGINT NOT NULL,
+    list_id BIGINT NOT NULL,
+    role TINYINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, list_id),
+    KEY idx_task_list_members_list (list_id),
+    CONSTRAINT fk_task_list_members_list FOREIGN KEY (list_id) REFERENCES task_lists(id) ON DELETE CASCADE
+);
+
+ALTER TABLE tasks ADD COLUMN list_id BIGINT NULL;
+CREATE INDEX idx_tasks_list ON tasks(list_id);
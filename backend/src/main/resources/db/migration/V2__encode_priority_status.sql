@@ -0,0 +1,26 @@
+-- Store priority and status as stable TINYINT codes (see Priority/Status enums).
+-- Priority codes ascend with decreasing urgency so ORDER BY priority sorts by rank.
+ALTER TABLE tasks
+    ADD COLUMN priority_code TINYINT,
+    ADD COLUMN status_code TINYINT;
+
+UPDATE tasks SET
+    priority_code = CASE priority
+        WHEN 'URGENT' THEN 1
+        WHEN 'NORMAL' THEN 2
+        WHEN 'DO_WHEN_TIME_ALLOWS' THEN 3
+    END,
+    status_code = CASE status
+        WHEN 'DONE' THEN 1
+        WHEN 'IN_PROGRESS' THEN 2
+        WHEN 'NOT_STARTED' THEN 3
+        WHEN 'MISSED_DEADLINE' THEN 4
+    END;
+
+ALTER TABLE tasks
+    DROP COLUMN priority,
+    DROP COLUMN status;
+
+ALTER TABLE tasks
+    CHANGE COLUMN priority_code priority TINYINT NOT NULL,
+    CHANGE COLUMN status_code status TINYINT NOT NULL;
@@ -0,0 +1,13 @@
+-- Append-only audit trail of task mutations, written in batches by TaskEventLog.
+-- No foreign keys: events outlive the tasks they describe and must stay cheap to insert.
+CREATE TABLE task_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    type TINYINT NOT NULL,
+    priority TINYINT NOT NULL,
+    status TINYINT NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL
+);
+CREATE INDEX idx_task_events_task ON task_events(task_id);
+CREATE INDEX idx_task_events_user_time ON task_events(user_id, occurred_at);
@@ -0,0 +1,17 @@
+-- Recurrence rule of a task; its deadline is the first occurrence.
+ALTER TABLE tasks
+    ADD COLUMN recurrence_frequency TINYINT,
+    ADD COLUMN recurrence_interval INT,
+    ADD COLUMN recurrence_until TIMESTAMP NULL;
+CREATE INDEX idx_tasks_user_recurrence ON tasks(user_id, recurrence_frequency);
+
+-- Only exceptions (skips) and completions of individual occurrences are stored.
+CREATE TABLE task_occurrences (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    occurrence_at TIMESTAMP NOT NULL,
+    status TINYINT NOT NULL,
+    skipped BOOLEAN NOT NULL DEFAULT FALSE,
+    UNIQUE (task_id, occurrence_at),
+    CONSTRAINT fk_task_occurrences FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
@@ -0,0 +1,36 @@
+-- When a task was last marked DONE; existing completions are dated by their last update.
+ALTER TABLE tasks ADD COLUMN completed_at TIMESTAMP NULL;
+UPDATE tasks SET completed_at = updated_at WHERE status = 1;
+CREATE INDEX idx_tasks_created_at ON tasks(created_at);
+CREATE INDEX idx_tasks_completed_at ON tasks(completed_at);
+
+-- Per-user daily counters maintained by TaskService and repaired nightly.
+CREATE TABLE task_daily_stats (
+    user_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    created INT NOT NULL DEFAULT 0,
+    completed INT NOT NULL DEFAULT 0,
+    completed_on_time INT NOT NULL DEFAULT 0,
+    completed_late INT NOT NULL DEFAULT 0,
+    late_seconds BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, day),
+    CONSTRAINT fk_user_daily_stats FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_task_daily_stats_day ON task_daily_stats(day);
+
+INSERT INTO task_daily_stats (user_id, day, created, completed, completed_on_time, completed_late, late_seconds)
+SELECT user_id, day, SUM(created), SUM(completed), SUM(on_time), SUM(late), SUM(late_seconds)
+FROM (
+    SELECT user_id, DATE(created_at) AS day, 1 AS created, 0 AS completed, 0 AS on_time, 0 AS late,
+           0 AS late_seconds
+    FROM tasks
+    WHERE created_at IS NOT NULL
+    UNION ALL
+    SELECT user_id, DATE(completed_at), 0, 1,
+           CASE WHEN completed_at <= deadline THEN 1 ELSE 0 END,
+           CASE WHEN completed_at > deadline THEN 1 ELSE 0 END,
+           CASE WHEN completed_at > deadline THEN TIMESTAMPDIFF(SECOND, deadline, completed_at) ELSE 0 END
+    FROM tasks
+    WHERE completed_at IS NOT NULL
+) contributions
+GROUP BY user_id, day;
@@ -0,0 +1,5 @@
+-- Task data can live on a different database than users (see ShardingConfig),
+-- so it can no longer reference users(id). idx_tasks_user and the primary key
+-- of task_daily_stats keep the user_id lookups indexed.
+ALTER TABLE tasks DROP FOREIGN KEY fk_user_tasks;
+ALTER TABLE task_daily_stats DROP FOREIGN KEY fk_user_daily_stats;
@@ -0,0 +1,2 @@
+-- Optimistic locking: every write to a task bumps its version, exposed as the ETag.
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,16 @@
+-- Subtasks: parent_id is the direct parent; task_tree is the closure table holding every
+-- ancestor/descendant pair (including each task with itself at depth 0), so whole subtrees
+-- are read and moved with a fixed number of statements regardless of depth.
+ALTER TABLE tasks ADD COLUMN parent_id BIGINT NULL;
+
+CREATE TABLE task_tree (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    KEY idx_task_tree_descendant (descendant_id, depth),
+    CONSTRAINT fk_task_tree_ancestor FOREIGN KEY (ancestor_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    CONSTRAINT fk_task_tree_descendant FOREIGN KEY (descendant_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+
+INSERT INTO task_tree (ancestor_id, descendant_id, depth) SELECT id, id, 0 FROM tasks;
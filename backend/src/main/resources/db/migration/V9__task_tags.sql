@@ -0,0 +1,10 @@
+-- Tags are stored per task; user_id is copied from the task so a user's whole tag
+-- index can be rebuilt from one range scan. Lives next to tasks on the same shard.
+CREATE TABLE task_tags (
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, name),
+    KEY idx_task_tags_user (user_id, name),
+    CONSTRAINT fk_task_tags_task FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
@@ -0,0 +1,91 @@
+package com.example.todo.controller;
+
+import com.example.todo.dto.JwtResponse;
+import com.example.todo.dto.LoginRequest;
+import com.example.todo.dto.SignupRequest;
+import com.example.todo.dto.TaskRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:negotiation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+class BinaryContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private final ObjectMapper json = mapper().build();
+    private final ObjectMapper smile = mapper().factory(new SmileFactory()).build();
+    private final ObjectMapper cbor = mapper().factory(new CBORFactory()).build();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void authAndTaskEndpoints_SpeakSmileAndCbor_JsonStaysDefault() throws Exception {
+        SignupRequest signup = new SignupRequest();
+        signup.setUsername("binary");
+        signup.setEmail("binary@example.com");
+        signup.setPassword("secret123");
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content(json.writeValueAsBytes(signup))).andExpect(status().isOk());
+
+        LoginRequest login = new LoginRequest();
+        login.setIdentifier("binary");
+        login.setPassword("secret123");
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login").contentType(CBOR).accept(CBOR)
+                .content(cbor.writeValueAsBytes(login)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn();
+        JwtResponse jwt = cbor.readValue(loginResult.getResponse().getContentAsByteArray(), JwtResponse.class);
+        String bearer = "Bearer " + jwt.getToken();
+
+        TaskRequest task = new TaskRequest();
+        task.setDescription("binary task");
+        task.setDeadline(LocalDateTime.of(2099, 1, 2, 3, 4, 5));
+        mockMvc.perform(post("/api/tasks").header("Authorization", bearer).contentType(SMILE).accept(SMILE)
+                .content(smile.writeValueAsBytes(task)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE));
+
+        MvcResult page = mockMvc.perform(get("/api/tasks").header("Authorization", bearer).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+        JsonNode first = smile.readTree(page.getResponse().getContentAsByteArray()).path("content").path(0);
+        assertEquals("binary task", first.path("description").asText());
+        assertEquals("2099-01-02T03:04:05", first.path("deadline").asText(), "dates encoded as in JSON");
+
+        mockMvc.perform(get("/api/tasks").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.todo.controller;
+
+import com.example.todo.exception.AppException;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Error responses (another user's task, missing tasks, unreadable bodies) never reach the error log.
+// The multi-threaded error traffic and exception costs are benchmarks (mvn -Pbenchmark test).
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:errors;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.concurrency-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ErrorPathBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorPathBenchmarkTest.class);
+
+    // Raise for a real measurement, e.g. -Derrors.duration-ms=10000 -Derrors.threads=8
+    private static final int THREADS = Integer.getInteger("errors.threads", 4);
+    private static final long DURATION_MS = Long.getLong("errors.duration-ms", 500);
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Request i answers expected[i]
+    private List<MockHttpServletRequestBuilder> requests;
+    private final int[] expected = { 403, 404, 403, 400, 400 };
+
+    @BeforeAll
+    void seed() throws Exception {
+        String owner = bearer("errorowner");
+        String other = bearer("errorother");
+        long foreignTask = json.readTree(mockMvc.perform(post("/api/tasks").header("Authorization", owner)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"private\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray()).path("id").asLong();
+
+        requests = List.of(
+                get("/api/tasks/" + foreignTask).header("Authorization", other),
+                get("/api/tasks/999999999").header("Authorization", other),
+                put("/api/tasks/" + foreignTask).header("Authorization", other)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"mine\"}"),
+                post("/api/tasks").header("Authorization", other)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"description\":"),
+                get("/api/tasks").param("priority", "NOT_A_PRIORITY").header("Authorization", other));
+    }
+
+    @Test
+    void errorResponses_StayOffTheErrorLog() throws Exception {
+        double reportedBefore = meterRegistry.counter("errors.reported").count();
+
+        for (int i = 0; i < requests.size(); i++) {
+            mockMvc.perform(requests.get(i)).andExpect(status().is(expected[i]));
+        }
+
+        assertEquals(reportedBefore, meterRegistry.counter("errors.reported").count());
+    }
+
+    @Test
+    void domainExceptions_AreStackless() {
+        assertEquals(0, new ResourceNotFoundException("Task not found").getStackTrace().length);
+        assertEquals(0, new ForbiddenException("Access denied").getStackTrace().length);
+        assertEquals(0, new AppException("Invalid", HttpStatus.BAD_REQUEST, "VALIDATION_ERROR")
+                .getStackTrace().length);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void errorTraffic_Throughput() throws Exception {
+        double reportedBefore = meterRegistry.counter("errors.reported").count();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong unexpected = new AtomicLong();
+        long deadline = System.nanoTime() + DURATION_MS * 1_000_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            Thread thread = new Thread(() -> {
+                for (int n = offset; System.nanoTime() < deadline; n++) {
+                    int which = n % requests.size();
+                    try {
+                        int status = mockMvc.perform(requests.get(which)).andReturn().getResponse().getStatus();
+                        if (status != expected[which]) {
+                            unexpected.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        unexpected.incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        log.info(String.format("error traffic: %,.0f requests/s over %d threads",
+                completed.get() * 1000.0 / DURATION_MS, THREADS));
+        assertEquals(0, unexpected.get());
+        assertEquals(reportedBefore, meterRegistry.counter("errors.reported").count());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void domainExceptions_ConstructionCost() {
+        long start = System.nanoTime();
+        int iterations = 100_000;
+        Exception last = null;
+        for (int i = 0; i < iterations; i++) {
+            last = new ResourceNotFoundException("Task not found");
+        }
+        long stackless = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            last = new IllegalStateException("Task not found");
+        }
+        long withTrace = System.nanoTime() - start;
+
+        log.info("exception construction: stackless {} ns, with stack trace {} ns",
+                stackless / iterations, withTrace / iterations);
+        assertNotNull(last);
+    }
+
+    private String bearer(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                                + "@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        return "Bearer " + json.readTree(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"identifier\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray()).path("token").asText();
+    }
+}
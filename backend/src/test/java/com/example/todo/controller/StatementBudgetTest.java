@@ -0,0 +1,322 @@
+package com.example.todo.controller;
+
+import com.example.todo.sql.SqlStatements;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Maximum number of SQL statements per TaskController, TaskListController and
+ * AuthController endpoint. A failure lists the statements the request ran; raise a budget
+ * only for a deliberate new query, never for a per-row one.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.sql.inspection-enabled=true"
+})
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String username;
+    private String bearer;
+
+    @BeforeEach
+    void signUpAndLogIn() throws Exception {
+        username = "budget" + USERS.incrementAndGet();
+        budget(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                        + "@example.com\",\"password\":\"secret123\"}"), 3)
+                .andExpect(status().isOk());
+        MvcResult login = budget(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"identifier\":\"" + username + "\",\"password\":\"secret123\"}"), 1)
+                .andExpect(status().isOk())
+                .andReturn();
+        bearer = "Bearer " + read(login).path("token").asText();
+    }
+
+    @Test
+    void login_ByEmail() throws Exception {
+        bearer = null;
+        budget(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"identifier\":\"" + username + "@example.com\",\"password\":\"secret123\"}"), 1)
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void taskList_DoesNotGrowWithRows() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            createTask("task " + i);
+        }
+        budget(get("/api/tasks"), 4).andExpect(status().isOk()).andExpect(SqlStatements.noRepeats());
+        budget(get("/api/tasks").param("deadlineFrom", "2099-01-01T00:00:00")
+                .param("deadlineTo", "2099-12-31T00:00:00"), 4).andExpect(status().isOk());
+    }
+
+    @Test
+    void singleTaskEndpoints() throws Exception {
+        long id = createTask("single");
+        budget(get("/api/tasks/" + id), 3).andExpect(status().isOk());
+        budget(put("/api/tasks/" + id).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"renamed\",\"status\":\"DONE\"}"), 4).andExpect(status().isOk());
+        budget(delete("/api/tasks/" + id), 5).andExpect(status().isNoContent());
+    }
+
+    @Test
+    void hierarchy_DoesNotGrowWithDepth() throws Exception {
+        long root = createTask("project");
+        long parent = root;
+        for (int depth = 1; depth <= 8; depth++) {
+            parent = createSubtask("level " + depth, parent);
+        }
+        long sibling = createSubtask("sibling", root);
+
+        // The first read also loads the owner's tag index
+        budget(get("/api/tasks/" + root + "/subtree"), 3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.subtasks").value(9))
+                .andExpect(jsonPath("$.children.length()").value(2));
+
+        // The deepest branch moves below the sibling with all of its descendants; the sibling's
+        // path to the root is read, locked and read again before the move
+        long branch = read(mockMvc.perform(get("/api/tasks/" + root + "/subtree").header("Authorization", bearer))
+                .andReturn()).path("children").path(0).path("task").path("id").asLong();
+        budget(put("/api/tasks/" + branch + "/parent").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"parentId\":" + sibling + "}"), 9).andExpect(status().isOk());
+        budget(get("/api/tasks/" + sibling + "/subtree"), 2)
+                .andExpect(jsonPath("$.subtasks").value(8));
+        budget(put("/api/tasks/" + sibling + "/parent").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"parentId\":" + parent + "}"), 7).andExpect(status().isBadRequest());
+
+        budget(delete("/api/tasks/" + root), 8).andExpect(status().isNoContent());
+        budget(get("/api/tasks/" + parent), 2).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tagFilters_ResolvedBeforeTheQuery() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            String tags = i % 3 == 0 ? "[\"work\",\"urgent\"]" : i % 3 == 1 ? "[\"work\",\"blocked\"]" : "[\"home\"]";
+            budget(post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":\"tagged " + i + "\",\"tags\":" + tags + "}"), 6)
+                    .andExpect(status().isCreated());
+        }
+        budget(get("/api/tasks").param("tag", "work").param("notTag", "blocked"), 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(4))
+                .andExpect(jsonPath("$.content[0].tags.length()").value(2));
+        budget(get("/api/tasks").param("notTag", "work"), 3)
+                .andExpect(jsonPath("$.totalElements").value(4));
+        budget(get("/api/tasks").param("tag", "unknown"), 1)
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void tagFilters_LargeTagFilteredInSql() throws Exception {
+        // Far more matches than placeholders MySQL accepts in one statement
+        int tasks = 40_000;
+        // app.tags.max-filter-ids plus the owner and paging parameters
+        int maxParameters = 1010;
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (user_id, description, priority, status, manual_rank) "
+                + "VALUES (?, ?, 2, 3, 'a0')", IntStream.range(0, tasks).boxed().toList(), 1000, (ps, i) -> {
+                    ps.setLong(1, userId);
+                    ps.setString(2, "bulk " + i);
+                });
+        jdbcTemplate.update("INSERT INTO task_tags (task_id, user_id, name) "
+                + "SELECT id, user_id, 'big' FROM tasks WHERE user_id = ?", userId);
+        jdbcTemplate.update("INSERT INTO task_tags (task_id, user_id, name) "
+                + "SELECT id, user_id, 'small' FROM tasks WHERE user_id = ? AND MOD(id, 1000) = 0", userId);
+
+        // User, tag index, page, count
+        budget(get("/api/tasks").param("tag", "big"), 4)
+                .andExpect(SqlStatements.parametersAtMost(maxParameters))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(tasks))
+                .andExpect(jsonPath("$.content[0].tags[0]").value("big"));
+        budget(get("/api/tasks").param("tag", "big").param("notTag", "small"), 3)
+                .andExpect(SqlStatements.parametersAtMost(maxParameters))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(tasks - tasks / 1000));
+        budget(get("/api/tasks").param("notTag", "big"), 3)
+                .andExpect(SqlStatements.parametersAtMost(maxParameters))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        // A small match still goes to the database as ids
+        budget(get("/api/tasks").param("tag", "big").param("tag", "small"), 3)
+                .andExpect(SqlStatements.parametersAtMost(maxParameters))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(tasks / 1000));
+    }
+
+    @Test
+    void manualOrder_MoveWritesOneRow() throws Exception {
+        long first = createTask("first");
+        long second = createTask("second");
+        long third = createTask("third");
+
+        // The first write also loads the owner's tag index
+        budget(put("/api/tasks/" + third + "/position").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"afterId\":" + first + ",\"beforeId\":" + second + "}"), 5)
+                .andExpect(status().isOk());
+        // With one neighbour the other side comes from the (user_id, manual_rank) index
+        budget(put("/api/tasks/" + first + "/position").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"afterId\":" + third + "}"), 5)
+                .andExpect(status().isOk());
+
+        budget(get("/api/tasks").param("sort", "manualRank"), 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(third))
+                .andExpect(jsonPath("$.content[1].id").value(first))
+                .andExpect(jsonPath("$.content[2].id").value(second));
+    }
+
+    @Test
+    void bulkUpdate_IsSetBased() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            createTask("bulk " + i);
+        }
+        budget(patch("/api/tasks").contentType(MediaType.APPLICATION_JSON).content("{\"priority\":\"URGENT\"}"), 2)
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void bulkUpdate_SkipsRowsWhoseStatusStaysTheSame() throws Exception {
+        long upcoming = createTask("upcoming");
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, username);
+        jdbcTemplate.update("INSERT INTO tasks (user_id, description, priority, status, deadline, manual_rank) "
+                + "VALUES (?, 'overdue', 2, 4, TIMESTAMP '2000-01-01 00:00:00', 'a0')", userId);
+
+        // The overdue task would be written back as MISSED_DEADLINE, so it is left alone
+        budget(patch("/api/tasks").contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"IN_PROGRESS\"}"), 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM tasks WHERE description = 'overdue'",
+                Long.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT status FROM tasks WHERE id = ?", Integer.class,
+                upcoming));
+    }
+
+    @Test
+    void occurrenceOverride() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"daily\",\"deadline\":\"2099-01-01T09:00:00\","
+                        + "\"recurrence\":{\"frequency\":\"DAILY\",\"interval\":1}}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = read(created).path("id").asLong();
+        budget(put("/api/tasks/" + id + "/occurrences/2099-01-03T09:00:00").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"), 4).andExpect(status().isOk());
+    }
+
+    @Test
+    void sharedLists_AccessChecksAddNoQueries() throws Exception {
+        String owner = bearer;
+        bearer = null;
+        signUpAndLogIn();
+        String outsider = bearer;
+        bearer = null;
+        signUpAndLogIn();
+        String member = bearer;
+        String memberName = username;
+
+        int lists = 40;
+        long[] listIds = new long[lists];
+        bearer = owner;
+        for (int i = 0; i < lists; i++) {
+            MvcResult created = budget(post("/api/lists").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\":\"list " + i + "\"}"), 3)
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            listIds[i] = read(created).path("id").asLong();
+            // Owner's memberships were evicted by the create, so each add reloads them once
+            budget(put("/api/lists/" + listIds[i] + "/members").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"username\":\"" + memberName + "\",\"role\":\"" + (i == 0 ? "VIEWER" : "EDITOR")
+                            + "\"}"), 5)
+                    .andExpect(status().isOk());
+        }
+        long shared = read(budget(post("/api/lists/" + listIds[1] + "/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"shared\"}"), 5)
+                .andExpect(status().isCreated())
+                .andReturn()).path("id").asLong();
+
+        // The member's 40 memberships come from one range scan, then from memory
+        bearer = member;
+        budget(get("/api/lists"), 2).andExpect(jsonPath("$.length()").value(lists));
+        budget(get("/api/lists"), 1).andExpect(jsonPath("$.length()").value(lists));
+        // Page and count, plus the owner's tag index on first use
+        budget(get("/api/lists/" + listIds[1] + "/tasks"), 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(shared));
+        budget(get("/api/lists/" + listIds[1] + "/tasks"), 3).andExpect(status().isOk());
+        // Same as the owner reading their own task: user, task
+        budget(get("/api/tasks/" + shared), 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.listId").value(listIds[1]));
+        budget(put("/api/tasks/" + shared).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"edited by member\"}"), 4).andExpect(status().isOk());
+        budget(post("/api/lists/" + listIds[0] + "/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"viewer write\"}"), 1).andExpect(status().isForbidden());
+
+        bearer = outsider;
+        budget(get("/api/lists/" + listIds[1] + "/tasks"), 2).andExpect(status().isNotFound());
+        budget(get("/api/tasks/" + shared), 3).andExpect(status().isForbidden());
+    }
+
+    private long createSubtask(String description, long parentId) throws Exception {
+        MvcResult created = budget(post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"" + description + "\",\"parentId\":" + parentId + "}"), 6)
+                .andExpect(status().isCreated())
+                .andReturn();
+        return read(created).path("id").asLong();
+    }
+
+    private long createTask(String description) throws Exception {
+        MvcResult created = budget(post("/api/tasks").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"" + description + "\",\"deadline\":\"2099-06-01T09:00:00\"}"), 5)
+                .andExpect(status().isCreated())
+                .andReturn();
+        return read(created).path("id").asLong();
+    }
+
+    private ResultActions budget(MockHttpServletRequestBuilder request, int maxStatements) throws Exception {
+        if (bearer != null) {
+            request.header("Authorization", bearer);
+        }
+        return mockMvc.perform(request).andExpect(SqlStatements.atMost(maxStatements));
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return json.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
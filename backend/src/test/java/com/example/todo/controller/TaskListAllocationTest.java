@@ -0,0 +1,208 @@
+package com.example.todo.controller;
+
+import com.example.todo.repository.UserRepository;
+import com.example.todo.service.TaskPageCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Guards the bytes allocated by one {@code GET /api/tasks}, end to end through
+ * the security filter chain, {@code TaskService}, the query and JSON
+ * serialization, against {@code allocation-baseline.properties}.
+ *
+ * The gate uses the exact per-thread allocation counter (MockMvc runs the
+ * request on the calling thread) and takes the median after warm-up. It is
+ * tagged as a benchmark and only runs with {@code mvn -Pbenchmark test}.
+ * Allocation differs between JDKs, so each feature release has its own
+ * baseline ({@code tasks.list.cached.jdk17}). A JFR recording of the same
+ * requests is written to {@code target/} and its top allocation sites are
+ * logged, so a regression can be traced without re-running. After an intended
+ * change, or on a new JDK, record the baseline with
+ * {@code -Dallocation.update-baseline=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:allocation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("benchmark")
+class TaskListAllocationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskListAllocationTest.class);
+
+    private static final String BASELINE = "allocation-baseline.properties";
+    private static final Path BASELINE_SOURCE = Paths.get("src", "test", "resources", BASELINE);
+    private static final int WARMUP = Integer.getInteger("allocation.warmup", 500);
+    private static final int SAMPLES = Integer.getInteger("allocation.samples", 101);
+    private static final double TOLERANCE = 0.15;
+    private static final String JDK = ".jdk" + Runtime.version().feature();
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskPageCache pageCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String bearer;
+    private Long userId;
+
+    @BeforeAll
+    void seed() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"alloc\",\"email\":\"alloc@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        byte[] login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"identifier\":\"alloc\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        bearer = "Bearer " + json.readTree(login).path("token").asText();
+
+        for (int i = 0; i < 20; i++) {
+            byte[] created = mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\":\"Allocation task " + i + "\",\"deadline\":\"2099-01-"
+                            + String.format("%02d", i + 1) + "T09:00:00\"}"))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertNotNull(json.readTree(created).path("id"));
+        }
+        userId = userRepository.findByUsername("alloc").orElseThrow().getId();
+    }
+
+    @Test
+    void listTasks_AllocationStaysWithinBaseline() throws Exception {
+        Map<String, Long> measured = new HashMap<>();
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "10000/s").withStackTrace();
+            recording.start();
+            measured.put("tasks.list.uncached" + JDK, measure(true));
+            measured.put("tasks.list.cached" + JDK, measure(false));
+            recording.stop();
+            Path jfr = Paths.get("target", "task-list-allocation.jfr");
+            Files.createDirectories(jfr.getParent());
+            recording.dump(jfr);
+            StringBuilder sites = new StringBuilder();
+            topAllocationSites(jfr, 10).forEach((site, bytes) -> sites.append(String.format("%n  %,12d B  %s",
+                    bytes, site)));
+            log.info("Top allocation sites for GET /api/tasks ({}):{}", jfr, sites);
+        }
+
+        Properties baseline = loadBaseline();
+        if (Boolean.getBoolean("allocation.update-baseline")) {
+            measured.forEach((key, bytes) -> baseline.setProperty(key, Long.toString(bytes)));
+            try (OutputStream out = Files.newOutputStream(BASELINE_SOURCE)) {
+                baseline.store(out, " Median bytes allocated per request, see TaskListAllocationTest");
+            }
+        }
+
+        measured.forEach((key, bytes) -> {
+            long expected = Long.parseLong(baseline.getProperty(key, "0"));
+            log.info("{}: {} bytes/request (baseline {})", key, bytes, expected);
+            assertTrue(expected > 0, () -> String.format("no baseline for %s, which allocates %,d bytes/request; "
+                    + "record one with -Dallocation.update-baseline=true", key, bytes));
+            assertTrue(bytes <= expected * (1 + TOLERANCE),
+                    String.format("%s allocates %,d bytes/request, more than %.0f%% over the baseline of %,d",
+                            key, bytes, TOLERANCE * 100, expected));
+        });
+    }
+
+    private long measure(boolean bypassCache) throws Exception {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < WARMUP + SAMPLES; i++) {
+            if (bypassCache) {
+                pageCache.invalidate(userId);
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            mockMvc.perform(get("/api/tasks").header("Authorization", bearer)).andExpect(status().isOk());
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            if (i >= WARMUP) {
+                samples[i - WARMUP] = allocated;
+            }
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(BASELINE_SOURCE)) {
+            try (InputStream in = Files.newInputStream(BASELINE_SOURCE)) {
+                baseline.load(in);
+            }
+        } else {
+            try (InputStream in = TaskListAllocationTest.class.getClassLoader().getResourceAsStream(BASELINE)) {
+                if (in != null) {
+                    baseline.load(in);
+                }
+            }
+        }
+        return baseline;
+    }
+
+    // Sampled bytes by allocated type and the first application frame that allocated it
+    private static Map<String, Long> topAllocationSites(Path jfr, int limit) throws IOException {
+        Map<String, Long> sites = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(jfr)) {
+            if (!event.getThread().getJavaName().equals(Thread.currentThread().getName())) {
+                continue;
+            }
+            String frame = event.getStackTrace() == null ? "?" : event.getStackTrace().getFrames().stream()
+                    .map(RecordedFrame::getMethod)
+                    .filter(method -> method.getType().getName().startsWith("com.example.todo")
+                            && !method.getType().getName().equals(TaskListAllocationTest.class.getName()))
+                    .findFirst()
+                    .map(method -> method.getType().getName() + "." + method.getName())
+                    .orElse(event.getStackTrace().getFrames().isEmpty() ? "?"
+                            : event.getStackTrace().getFrames().get(0).getMethod().getType().getName());
+            sites.merge(event.getClass("objectClass").getName() + " <- " + frame, event.getLong("weight"), Long::sum);
+        }
+        return sites.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a,
+                        LinkedHashMap::new));
+    }
+}
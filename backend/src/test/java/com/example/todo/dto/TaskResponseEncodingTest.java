@@ -0,0 +1,98 @@
+package com.example.todo.dto;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and encode/decode cost of a task page in JSON, Smile
+ * and CBOR; the measurements are logged at debug level. Iterations can be
+ * raised with {@code -Dencoding.iterations}.
+ */
+class TaskResponseEncodingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskResponseEncodingTest.class);
+
+    private static final int ITERATIONS = Integer.getInteger("encoding.iterations", 2_000);
+
+    @Test
+    void binaryFormats_RoundTripAndAreSmallerThanJson() throws Exception {
+        Map<String, ObjectMapper> mappers = Map.of(
+                "json", mapper(new JsonFactory()),
+                "smile", mapper(new SmileFactory()),
+                "cbor", mapper(new CBORFactory()));
+
+        for (int size : new int[] { 20, 100 }) {
+            Map<String, Object> page = page(size);
+            String expected = mappers.get("json").writeValueAsString(page);
+            int jsonBytes = mappers.get("json").writeValueAsBytes(page).length;
+
+            for (String format : List.of("json", "smile", "cbor")) {
+                ObjectMapper mapper = mappers.get(format);
+                byte[] encoded = mapper.writeValueAsBytes(page);
+                assertEquals(expected, mappers.get("json").writeValueAsString(mapper.readTree(encoded)),
+                        format + " round trip");
+                if (!format.equals("json")) {
+                    assertTrue(encoded.length < jsonBytes, format + " smaller than json");
+                }
+
+                for (int i = 0; i < ITERATIONS / 10; i++) {
+                    mapper.readTree(mapper.writeValueAsBytes(page));
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    encoded = mapper.writeValueAsBytes(page);
+                }
+                long encodeNs = (System.nanoTime() - start) / ITERATIONS;
+                start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    mapper.readTree(encoded);
+                }
+                long decodeNs = (System.nanoTime() - start) / ITERATIONS;
+                log.debug(String.format("%3d tasks %-5s %,7d bytes (%3d%% of json)  encode %,9d ns  decode %,9d ns",
+                        size, format, encoded.length, 100 * encoded.length / jsonBytes, encodeNs, decodeNs));
+            }
+        }
+    }
+
+    // Same shape as a serialized Spring Data page of TaskResponse
+    private static Map<String, Object> page(int size) {
+        List<TaskResponse> content = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            content.add(TaskResponse.builder()
+                    .id(1_000L + i)
+                    .description("Prepare quarterly report section " + i)
+                    .priority(Priority.values()[i % Priority.values().length])
+                    .status(Status.values()[i % Status.values().length])
+                    .deadline(base.plusDays(i))
+                    .createdAt(base.minusDays(30))
+                    .updatedAt(base.minusDays(1))
+                    .version((long) i % 5)
+                    .build());
+        }
+        return Map.of("content", content, "totalElements", size, "totalPages", 1, "number", 0, "size", size);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new Jackson2ObjectMapperBuilder()
+                .factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.todo.event;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import com.example.todo.shard.ShardRouter;
+import com.example.todo.shard.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEventLogTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEventLogTest.class);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+    private SimpleMeterRegistry meterRegistry;
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void publish_BufferFull_DropsAndCounts() {
+        TaskEventLog eventLog = new TaskEventLog(jdbcTemplate, shardRouter, meterRegistry, 4, 100, 10);
+
+        for (int i = 0; i < 6; i++) {
+            eventLog.publish(event(i));
+        }
+
+        assertEquals(4.0, meterRegistry.counter("tasks.events.published").count());
+        assertEquals(2.0, meterRegistry.counter("tasks.events.dropped").count());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void stop_DrainsBufferedEvents() {
+        stubBatchInsert();
+        TaskEventLog eventLog = new TaskEventLog(jdbcTemplate, shardRouter, meterRegistry, 1024, 100, 60_000);
+        eventLog.start();
+
+        for (int i = 0; i < 250; i++) {
+            eventLog.publish(event(i));
+        }
+        eventLog.stop();
+
+        assertEquals(250, inserted.get());
+        assertEquals(250.0, meterRegistry.counter("tasks.events.written").count());
+    }
+
+    // Paced producers at a sustained aggregate rate; the writer has to keep up without drops
+    @Test
+    @Tag("benchmark")
+    void publish_SustainedWriteRate_AllWrittenInBatches() throws Exception {
+        stubBatchInsert();
+        TaskEventLog eventLog = new TaskEventLog(jdbcTemplate, shardRouter, meterRegistry, 65_536, 500, 5);
+        eventLog.start();
+
+        int producers = 4;
+        int eventsPerSecond = 100_000;
+        int seconds = 2;
+        long nanosPerEvent = 1_000_000_000L * producers / eventsPerSecond;
+        int eventsPerProducer = eventsPerSecond * seconds / producers;
+
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    if (i % 100 == 0) {
+                        LockSupport.parkNanos(start + i * nanosPerEvent - System.nanoTime());
+                    }
+                    eventLog.publish(event(i));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        eventLog.stop();
+        long elapsedNanos = System.nanoTime() - start;
+
+        long total = (long) producers * eventsPerProducer;
+        assertEquals(0.0, meterRegistry.counter("tasks.events.dropped").count());
+        assertEquals(total, inserted.get());
+        assertTrue(batches.get() < total / 10, "events should be written in batches");
+
+        log.info("task events: {} written in {} batches at {} events/s",
+                inserted.get(), batches.get(), Math.round(inserted.get() / (elapsedNanos / 1e9)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBatchInsert() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    inserted.addAndGet(((Collection<TaskEvent>) inv.getArgument(1)).size());
+                    batches.incrementAndGet();
+                    return new int[0][];
+                });
+    }
+
+    private static TaskEvent event(long taskId) {
+        return new TaskEvent(taskId, 1L, TaskEventType.UPDATED, Priority.NORMAL, Status.IN_PROGRESS,
+                System.currentTimeMillis());
+    }
+}
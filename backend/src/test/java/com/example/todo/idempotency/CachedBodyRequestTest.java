@@ -0,0 +1,79 @@
+package com.example.todo.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedBodyRequestTest {
+
+    @Test
+    void readListener_GetsTheWholeBodyThenAllDataRead() throws Exception {
+        ServletInputStream in = cachedBody("{\"description\":\"task\"}").getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data");
+                while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), calls);
+        assertEquals("{\"description\":\"task\"}", read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readListener_FailureGoesToOnError() throws Exception {
+        ServletInputStream in = cachedBody("{}").getInputStream();
+        IOException failure = new IOException("client went away");
+        List<Throwable> errors = new ArrayList<>();
+
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                throw failure;
+            }
+
+            @Override
+            public void onAllDataRead() {
+                fail("all data read after a failure");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                errors.add(t);
+            }
+        });
+
+        assertEquals(List.of(failure), errors);
+    }
+
+    private static IdempotencyFilter.CachedBodyRequest cachedBody(String body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tasks");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new IdempotencyFilter.CachedBodyRequest(request);
+    }
+}
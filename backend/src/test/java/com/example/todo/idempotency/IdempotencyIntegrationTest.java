@@ -0,0 +1,150 @@
+package com.example.todo.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.idempotency.store=jdbc"
+})
+@AutoConfigureMockMvc
+class IdempotencyIntegrationTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    private long userId;
+    private String bearer;
+
+    @BeforeEach
+    void signUpAndLogIn() throws Exception {
+        String username = "idem" + USERS.incrementAndGet();
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username
+                                + "@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        JsonNode login = read(mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"identifier\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn());
+        bearer = "Bearer " + login.path("token").asText();
+        userId = login.path("id").asLong();
+    }
+
+    @Test
+    void retriedCreate_IsReplayedWithoutASecondTask() throws Exception {
+        MvcResult first = mockMvc.perform(create("retry-1", "write report"))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn();
+        MvcResult retry = mockMvc.perform(create("retry-1", "write report"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(header().string("Location", first.getResponse().getHeader("Location")))
+                .andExpect(header().string("ETag", first.getResponse().getHeader("ETag")))
+                .andReturn();
+
+        long id = read(first).path("id").asLong();
+        assertEquals(id, read(retry).path("id").asLong());
+        mockMvc.perform(get("/api/tasks").header("Authorization", bearer))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void sameKeyForADifferentRequest_IsRejected() throws Exception {
+        mockMvc.perform(create("reused", "first")).andExpect(status().isCreated());
+        mockMvc.perform(create("reused", "second"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+    }
+
+    @Test
+    void rejectedRequest_IsStoredAndReplayed() throws Exception {
+        mockMvc.perform(delete("/api/tasks/999999").header("Authorization", bearer)
+                        .header(IdempotencyFilter.HEADER, "missing"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/tasks/999999").header("Authorization", bearer)
+                        .header(IdempotencyFilter.HEADER, "missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+    }
+
+    @Test
+    void oversizedKey_IsRejected() throws Exception {
+        mockMvc.perform(create("k".repeat(256), "too long"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_IDEMPOTENCY_KEY"));
+    }
+
+    @Test
+    void concurrentClaims_ExactlyOneAcquires() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Claim.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    return store.claim(userId, "race", "fp").getOutcome();
+                }));
+            }
+            start.countDown();
+            int acquired = 0;
+            for (Future<Claim.Outcome> outcome : outcomes) {
+                if (outcome.get(10, TimeUnit.SECONDS) == Claim.Outcome.ACQUIRED) {
+                    acquired++;
+                }
+            }
+            assertEquals(1, acquired);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        store.release(userId, "race", "fp");
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(userId, "race", "fp").getOutcome());
+    }
+
+    private MockHttpServletRequestBuilder create(String key, String description) {
+        return post("/api/tasks").header("Authorization", bearer).header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"" + description + "\",\"priority\":\"URGENT\"}");
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return json.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
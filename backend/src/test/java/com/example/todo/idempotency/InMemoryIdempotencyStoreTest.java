@@ -0,0 +1,98 @@
+package com.example.todo.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(
+            Duration.ofHours(1), Duration.ofSeconds(30), 1 << 20, nanos::get);
+
+    @Test
+    void concurrentClaims_ExactlyOneAcquires() throws Exception {
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Claim.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    return store.claim(1L, "key", "fp").getOutcome();
+                }));
+            }
+            start.countDown();
+            int acquired = 0;
+            for (Future<Claim.Outcome> outcome : outcomes) {
+                Claim.Outcome result = outcome.get(5, TimeUnit.SECONDS);
+                if (result == Claim.Outcome.ACQUIRED) {
+                    acquired++;
+                } else {
+                    assertEquals(Claim.Outcome.IN_PROGRESS, result);
+                }
+            }
+            assertEquals(1, acquired);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedClaim_IsReplayedForTheSameRequestOnly() {
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(1L, "key", "fp").getOutcome());
+        store.complete(1L, "key", "fp", response("created"));
+
+        Claim replay = store.claim(1L, "key", "fp");
+        assertEquals(Claim.Outcome.REPLAY, replay.getOutcome());
+        assertEquals(201, replay.getResponse().getStatus());
+        assertEquals("created", new String(replay.getResponse().getBody(), StandardCharsets.UTF_8));
+        assertEquals(Claim.Outcome.MISMATCH, store.claim(1L, "key", "other").getOutcome());
+        // Keys are scoped per user
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(2L, "key", "other").getOutcome());
+    }
+
+    @Test
+    void releasedClaim_CanBeAcquiredAgain() {
+        store.claim(1L, "key", "fp");
+        store.release(1L, "key", "other");
+        assertEquals(Claim.Outcome.IN_PROGRESS, store.claim(1L, "key", "fp").getOutcome());
+
+        store.release(1L, "key", "fp");
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(1L, "key", "fp").getOutcome());
+    }
+
+    @Test
+    void abandonedClaim_ExpiresAfterLease() {
+        store.claim(1L, "key", "fp");
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals(Claim.Outcome.IN_PROGRESS, store.claim(1L, "key", "fp").getOutcome());
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(1L, "key", "fp").getOutcome());
+        store.complete(1L, "key", "fp", response("done"));
+
+        // Completed entries outlive the lease
+        nanos.addAndGet(Duration.ofMinutes(59).toNanos());
+        assertEquals(Claim.Outcome.REPLAY, store.claim(1L, "key", "fp").getOutcome());
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertEquals(Claim.Outcome.ACQUIRED, store.claim(1L, "key", "fp").getOutcome());
+    }
+
+    private static StoredResponse response(String body) {
+        return new StoredResponse(201, "application/json", "/api/tasks/1", "\"0\"",
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
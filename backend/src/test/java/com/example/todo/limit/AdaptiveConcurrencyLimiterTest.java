@@ -0,0 +1,69 @@
+package com.example.todo.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void limit_FollowsInjectedLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 200, 2.0, 0.1);
+
+        saturate(limiter, 300, FAST);
+        int healthy = limiter.getLimit();
+        assertTrue(healthy > 50, "limit grows while latency is flat: " + healthy);
+
+        // The database slows down twentyfold
+        saturate(limiter, 100, SLOW);
+        assertEquals(10, limiter.getLimit());
+
+        // ... and recovers
+        saturate(limiter, 300, FAST);
+        assertTrue(limiter.getLimit() > 50, "limit recovers: " + limiter.getLimit());
+    }
+
+    @Test
+    void limit_NotRaisedWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 200, 2.0, 0.1);
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.NORMAL));
+            limiter.release(FAST);
+        }
+
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void tryAcquire_NormalLeavesReservedShareToHigh() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 10, 10, 2.0, 0.2);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.NORMAL));
+        }
+        assertFalse(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.NORMAL));
+        assertTrue(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.HIGH));
+        assertTrue(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.HIGH));
+        assertFalse(limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.HIGH));
+        assertEquals(10, limiter.getInflight());
+    }
+
+    // Keeps the limiter full and completes one request per sample
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int samples, long rttNanos) {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.tryAcquire(AdaptiveConcurrencyLimiter.Priority.HIGH)) {
+                // fill up to the current limit
+            }
+            limiter.release(rttNanos);
+        }
+        while (limiter.getInflight() > 0) {
+            limiter.release(0);
+        }
+    }
+}
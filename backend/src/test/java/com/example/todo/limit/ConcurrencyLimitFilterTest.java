@@ -0,0 +1,113 @@
+package com.example.todo.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch databaseStalled = new CountDownLatch(1);
+    private ExecutorService workers;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        // Fixed limit of 10, of which 2 are reserved for authentication
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 10, 10, 2.0, 0.2);
+        filter = new ConcurrencyLimitFilter(limiter, new ObjectMapper().findAndRegisterModules(), meterRegistry);
+        workers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseStalled.countDown();
+        workers.shutdownNow();
+    }
+
+    @Test
+    void stalledBackend_ShedsTaskTrafficButAdmitsLoginAndHealth() throws Exception {
+        // Task requests hang as if every query waited on a stalled database
+        FilterChain stalled = (request, response) -> {
+            try {
+                databaseStalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<Future<Integer>> blocked = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            blocked.add(workers.submit(() -> call("/api/tasks", stalled).getStatus()));
+        }
+        awaitInflight(8);
+
+        long start = System.nanoTime();
+        MockHttpServletResponse shed = call("/api/tasks", (request, response) -> fail("must not reach the chain"));
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("OVERLOADED"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500), "rejection is immediate");
+
+        FilterChain ok = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+        assertEquals(200, call("/api/auth/login", ok).getStatus());
+        assertEquals(200, call("/actuator/health", ok).getStatus());
+
+        databaseStalled.countDown();
+        for (Future<Integer> request : blocked) {
+            assertEquals(200, request.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(200, call("/api/tasks", ok).getStatus());
+
+        assertEquals(1.0, meterRegistry.get("http.server.concurrency.rejected").tag("priority", "normal")
+                .counter().count());
+        assertEquals(10.0, meterRegistry.get("http.server.concurrency.limit").gauge().value());
+        assertEquals(0.0, meterRegistry.get("http.server.concurrency.inflight").gauge().value());
+    }
+
+    @Test
+    void authenticationLatency_IsNotSampled() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = spy(new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.2));
+        filter = new ConcurrencyLimitFilter(limiter, new ObjectMapper(), new SimpleMeterRegistry());
+        FilterChain ok = (request, response) -> ((HttpServletResponse) response).setStatus(200);
+
+        call("/login/oauth2/code/google", ok);
+        call("/api/auth/login", ok);
+        verify(limiter, times(2)).release(0);
+
+        call("/api/tasks", ok);
+        verify(limiter).release(longThat(rtt -> rtt > 0));
+    }
+
+    private MockHttpServletResponse call(String path, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void awaitInflight(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("http.server.concurrency.inflight").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "requests did not start");
+            Thread.sleep(5);
+        }
+    }
+}
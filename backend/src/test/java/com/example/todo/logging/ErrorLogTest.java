@@ -0,0 +1,70 @@
+package com.example.todo.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLogTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private SimpleMeterRegistry registry;
+    private ErrorLog errorLog;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        errorLog = new ErrorLog(registry, TimeUnit.SECONDS.toNanos(60), 3, 100, nanos::get);
+    }
+
+    @Test
+    void repeatsOfOneSignature_AreCountedNotTraced() {
+        for (int i = 0; i < 50; i++) {
+            errorLog.report("GET /api/tasks", failure("TaskService", 42));
+        }
+        assertEquals(50, count("errors.reported"));
+        assertEquals(49, count("errors.suppressed"));
+        assertEquals(0, count("errors.dropped"));
+
+        // The next window traces the signature again
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        errorLog.report("GET /api/tasks", failure("TaskService", 42));
+        assertEquals(49, count("errors.suppressed"));
+    }
+
+    @Test
+    void distinctSignatures_AreRateLimited() {
+        for (int line = 0; line < 10; line++) {
+            errorLog.report("POST /api/tasks", failure("TaskService", line));
+        }
+        assertEquals(0, count("errors.suppressed"));
+        assertEquals(7, count("errors.dropped"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        errorLog.report("POST /api/tasks", failure("TaskRankService", 1));
+        assertEquals(7, count("errors.dropped"));
+    }
+
+    @Test
+    void signature_IsTypeAndThrowingFrame() {
+        assertEquals("java.lang.IllegalStateException@com.example.TaskService.update:42",
+                ErrorLog.signature(failure("TaskService", 42)));
+        assertNotEquals(ErrorLog.signature(failure("TaskService", 42)),
+                ErrorLog.signature(failure("TaskService", 43)));
+    }
+
+    private static IllegalStateException failure(String className, int line) {
+        IllegalStateException ex = new IllegalStateException("boom");
+        ex.setStackTrace(new StackTraceElement[] {
+                new StackTraceElement("com.example." + className, "update", className + ".java", line) });
+        return ex;
+    }
+
+    private double count(String name) {
+        return registry.counter(name).count();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.todo.reminder;
+
+import com.example.todo.shard.ShardRouter;
+import com.example.todo.shard.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineReminderServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MutableClock clock;
+    private InMemoryReminderSink sink;
+    private DeadlineReminderService reminders;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.toInstant(ZoneOffset.UTC));
+        sink = new InMemoryReminderSink();
+        reminders = new DeadlineReminderService(jdbcTemplate, new ShardRouter(new ShardingProperties()), sink,
+                new SimpleMeterRegistry(), 1000, 15, clock);
+        // Every due task is still open unless a test says otherwise
+        lenient().when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenAnswer(inv -> openIds(inv.getArguments()));
+    }
+
+    @Test
+    void schedule_DeliversLeadTimeBeforeDeadline() {
+        reminders.schedule(1L, 7L, NOW.plusHours(2));
+
+        clock.advance(Duration.ofMinutes(104));
+        reminders.advance();
+        assertTrue(sink.delivered.isEmpty());
+
+        clock.advance(Duration.ofMinutes(1));
+        reminders.advance();
+        assertEquals(1, sink.delivered.size());
+        assertEquals(new DeadlineReminder(1L, 7L, NOW.plusHours(2)), sink.delivered.get(0));
+    }
+
+    @Test
+    void reschedule_MovesReminderAndCancelDropsIt() {
+        reminders.schedule(1L, 7L, NOW.plusHours(2));
+        reminders.schedule(1L, 7L, NOW.plusDays(3));
+        reminders.schedule(2L, 7L, NOW.plusHours(1));
+        reminders.cancel(2L);
+
+        clock.advance(Duration.ofDays(1));
+        reminders.advance();
+        assertTrue(sink.delivered.isEmpty());
+
+        clock.advance(Duration.ofDays(2));
+        reminders.advance();
+        assertEquals(1, sink.delivered.size());
+        assertEquals(1L, sink.delivered.get(0).getTaskId());
+    }
+
+    @Test
+    void schedule_InsideLeadTime_DeliversImmediately() {
+        reminders.schedule(1L, 7L, NOW.plusMinutes(5));
+        reminders.schedule(2L, 7L, NOW.minusMinutes(5));
+
+        assertEquals(1, sink.delivered.size());
+        assertEquals(1L, sink.delivered.get(0).getTaskId());
+    }
+
+    @Test
+    void advance_TaskCompletedInBulk_ReminderDropped() {
+        reminders.schedule(1L, 7L, NOW.plusHours(1));
+        reminders.schedule(2L, 7L, NOW.plusHours(1));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of(2L));
+
+        clock.advance(Duration.ofHours(1));
+        reminders.advance();
+
+        assertEquals(1, sink.delivered.size());
+        assertEquals(2L, sink.delivered.get(0).getTaskId());
+    }
+
+    @Test
+    void advance_ManyDueAtOnce_RecheckedInChunks() {
+        for (long id = 1; id <= 2500; id++) {
+            reminders.schedule(id, 7L, NOW.plusHours(1));
+        }
+
+        clock.advance(Duration.ofHours(1));
+        reminders.advance();
+
+        assertEquals(2500, sink.delivered.size());
+        // 1,000 ids per statement
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    // Expanded arguments are (sql, Long.class, status code, task ids...)
+    private static List<Long> openIds(Object[] args) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            ids.add((Long) args[i]);
+        }
+        return ids;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
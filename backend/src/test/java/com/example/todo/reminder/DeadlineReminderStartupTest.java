@@ -0,0 +1,32 @@
+package com.example.todo.reminder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tasks seeded by a migration must be in the timing wheel once the context has started
+@ExtendWith(OutputCaptureExtension.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema,classpath:db/reminder-seed",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class DeadlineReminderStartupTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void start_LoadsOpenUpcomingDeadlines(CapturedOutput output) {
+        assertEquals(3, meterRegistry.get("reminders.pending").gauge().value());
+        assertFalse(output.getOut().contains("Could not load upcoming deadlines"), output::getOut);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.todo.reminder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class InMemoryReminderSink implements ReminderSink {
+
+    final List<DeadlineReminder> delivered = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void deliver(DeadlineReminder reminder) {
+        delivered.add(reminder);
+    }
+}
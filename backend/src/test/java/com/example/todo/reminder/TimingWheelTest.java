@@ -0,0 +1,62 @@
+package com.example.todo.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void advanceTo_ExpiresEachEntryAtItsTick_AcrossAllLevels() {
+        TimingWheel<Long> wheel = new TimingWheel<>(37);
+        long[] expirations = { 38, 292, 293, 300, 16_421, 16_422, 1_048_613, 67_108_900, 67_108_901, 200_000_000 };
+        for (long expiration : expirations) {
+            assertTrue(wheel.schedule(expiration, expiration, expiration));
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long expiration : expirations) {
+            wheel.advanceTo(expiration - 1, fired::add);
+            assertFalse(fired.contains(expiration), "fired early: " + expiration);
+            wheel.advanceTo(expiration, fired::add);
+            assertTrue(fired.contains(expiration), "not fired on time: " + expiration);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceTo_RandomSchedule_FiresInExpirationOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        Random random = new Random(42);
+        for (long key = 0; key < 100_000; key++) {
+            wheel.schedule(key, key, 1 + random.nextInt(2_000_000));
+        }
+
+        List<Long> ticks = new ArrayList<>();
+        wheel.advanceTo(2_000_000, key -> ticks.add(wheel.currentTick()));
+
+        assertEquals(100_000, ticks.size());
+        for (int i = 1; i < ticks.size(); i++) {
+            assertTrue(ticks.get(i - 1) <= ticks.get(i));
+        }
+    }
+
+    @Test
+    void cancelAndReschedule_ReplaceEntry() {
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        wheel.schedule(1, "first", 500);
+        wheel.schedule(1, "moved", 10);
+        wheel.schedule(2, "cancelled", 20);
+        assertTrue(wheel.cancel(2));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(1000, fired::add);
+
+        assertEquals(List.of("moved"), fired);
+        assertFalse(wheel.schedule(3, "past", 1000));
+    }
+}
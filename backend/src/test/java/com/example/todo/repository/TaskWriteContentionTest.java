@@ -0,0 +1,159 @@
+package com.example.todo.repository;
+
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.Status;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Read-modify-write on hot tasks: @Version compare-and-set with retries vs SELECT ... FOR UPDATE.
+// Both must keep every increment; their throughput is compared by the benchmark (mvn -Pbenchmark test).
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:contention;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskWriteContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteContentionTest.class);
+
+    // Long enough for the threads to collide on one row many times
+    private static final long CORRECTNESS_MS = 200;
+    // Raise for a real measurement, e.g. -Dcontention.duration-ms=5000 -Dcontention.threads=8
+    private static final int THREADS = Integer.getInteger("contention.threads", 4);
+    private static final long DURATION_MS = Long.getLong("contention.duration-ms", 500);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        owner = userRepository.findByUsername("contention").orElseGet(() -> userRepository
+                .save(User.builder().username("contention").email("contention@example.com").build()));
+    }
+
+    @Test
+    void optimisticAndPessimistic_NoLostUpdates() throws Exception {
+        run(1, CORRECTNESS_MS, this::incrementOptimistic);
+        run(1, CORRECTNESS_MS, this::incrementPessimistic);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void optimisticAndPessimistic_Throughput() throws Exception {
+        run(4, DURATION_MS, this::incrementOptimistic); // warm-up
+        run(4, DURATION_MS, this::incrementPessimistic);
+
+        for (int rows : new int[] { 1, 16 }) {
+            Result optimistic = run(rows, DURATION_MS, this::incrementOptimistic);
+            Result pessimistic = run(rows, DURATION_MS, this::incrementPessimistic);
+
+            log.info(String.format("%2d hot rows: @Version %,6.0f commits/s (%d version conflicts), "
+                    + "FOR UPDATE %,6.0f commits/s", rows, optimistic.perSecond(), optimistic.conflicts(),
+                    pessimistic.perSecond()));
+        }
+    }
+
+    private Result run(int rows, long durationMs, Increment increment) throws Exception {
+        taskRepository.deleteAll();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            ids.add(taskRepository.save(Task.builder().owner(owner).description("0").priority(Priority.NORMAL)
+                    .status(Status.IN_PROGRESS).manualRank("a0").build()).getId());
+        }
+
+        AtomicLong commits = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        long deadline = System.nanoTime() + durationMs * 1_000_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    increment.apply(id, conflicts);
+                    commits.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = taskRepository.findAllById(ids).stream()
+                .mapToLong(task -> Long.parseLong(task.getDescription()))
+                .sum();
+        assertEquals(commits.get(), total, "every committed increment must survive");
+        return new Result(commits.get(), conflicts.get(), durationMs);
+    }
+
+    // What a client does on 412: re-read and retry against the new version
+    private void incrementOptimistic(Long id, AtomicLong conflicts) {
+        while (true) {
+            try {
+                tx.executeWithoutResult(status -> {
+                    Task task = taskRepository.findById(id).orElseThrow();
+                    task.setDescription(String.valueOf(Long.parseLong(task.getDescription()) + 1));
+                    taskRepository.saveAndFlush(task);
+                });
+                return;
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.incrementAndGet();
+            }
+        }
+    }
+
+    private void incrementPessimistic(Long id, AtomicLong conflicts) {
+        tx.executeWithoutResult(status -> {
+            Task task = entityManager.find(Task.class, id, LockModeType.PESSIMISTIC_WRITE);
+            task.setDescription(String.valueOf(Long.parseLong(task.getDescription()) + 1));
+        });
+    }
+
+    private interface Increment {
+        void apply(Long id, AtomicLong conflicts);
+    }
+
+    private record Result(long commits, long conflicts, long durationMs) {
+        double perSecond() {
+            return commits * 1000.0 / durationMs;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.todo.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1_000, 5_000, 2, now::get);
+
+    @Test
+    void opensAtFailureRate_AndFailsFastUntilOpenTimeElapses() {
+        breaker.onSuccess(10);
+        breaker.onSuccess(10);
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState()); // below minimum calls
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void slowCallsCountAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onSuccess(1_000);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpen_ClosesAfterAllProbesSucceed() {
+        open();
+        now.addAndGet(5_000);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission()); // only two probes at a time
+        breaker.onSuccess(10);
+        breaker.onSuccess(10);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState()); // fresh window
+    }
+
+    @Test
+    void halfOpen_ReopensOnProbeFailure() {
+        open();
+        now.addAndGet(5_000);
+        assertTrue(breaker.tryAcquirePermission());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker small = new CircuitBreaker(4, 4, 0.5, 1_000, 5_000, 1, now::get);
+        small.onFailure();
+        for (int i = 0; i < 10; i++) {
+            small.onSuccess(10);
+        }
+        small.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, small.getState());
+        small.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, small.getState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
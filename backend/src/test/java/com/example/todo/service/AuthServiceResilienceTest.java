@@ -0,0 +1,210 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.JwtResponse;
+import com.example.todo.dto.OAuth2CallbackRequest;
+import com.example.todo.entity.User;
+import com.example.todo.exception.AppException;
+import com.example.todo.logging.ErrorLog;
+import com.example.todo.resilience.CircuitBreaker;
+import com.example.todo.resilience.OAuthProviderGuards;
+import com.example.todo.security.JwtTokenProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the OAuth callback flow against a local stub of both providers that
+ * can be switched to failing or hanging.
+ */
+class AuthServiceResilienceTest {
+
+    private enum Mode { OK, FAIL, SLOW }
+
+    private volatile Mode googleMode = Mode.OK;
+    private volatile Mode githubMode = Mode.OK;
+    private final AtomicInteger googleHits = new AtomicInteger();
+    private final AtomicInteger githubHits = new AtomicInteger();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ExecutorService clients;
+    private OAuthProviderGuards guards;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/google/token", exchange -> respond(exchange, googleMode, googleHits,
+                "{\"access_token\":\"g\"}"));
+        server.createContext("/google/user", exchange -> respond(exchange, googleMode, googleHits,
+                "{\"sub\":\"1\",\"email\":\"ann@example.com\",\"name\":\"Ann\"}"));
+        server.createContext("/github/token", exchange -> respond(exchange, githubMode, githubHits,
+                "{\"access_token\":\"h\"}"));
+        server.createContext("/github/user", exchange -> respond(exchange, githubMode, githubHits,
+                "{\"id\":2,\"email\":\"bob@example.com\",\"login\":\"bob\"}"));
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        RestTemplate restTemplate = new RestTemplateBuilder()
+                .setConnectTimeout(Duration.ofMillis(500))
+                .setReadTimeout(Duration.ofMillis(400))
+                .build();
+        // Two calls per provider at a time; four calls decide; 300 ms open; one probe
+        guards = new OAuthProviderGuards(meterRegistry, new ErrorLog(meterRegistry, 60, 10, 100), 2, 4, 4, 0.5,
+                2000, 300, 1);
+
+        OAuthProvisioningService provisioning = mock(OAuthProvisioningService.class);
+        when(provisioning.provision(anyString(), anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(7L);
+            user.setUsername(invocation.getArgument(3));
+            user.setEmail(invocation.getArgument(2));
+            return user;
+        });
+        JwtTokenProvider jwtTokenProvider = mock(JwtTokenProvider.class);
+        when(jwtTokenProvider.generateTokenFromUsername(anyString())).thenReturn("jwt");
+
+        authService = new AuthService(null, null, null, jwtTokenProvider, restTemplate, provisioning, guards);
+        ReflectionTestUtils.setField(authService, "googleTokenUri", base + "/google/token");
+        ReflectionTestUtils.setField(authService, "googleUserInfoUri", base + "/google/user");
+        ReflectionTestUtils.setField(authService, "githubTokenUri", base + "/github/token");
+        ReflectionTestUtils.setField(authService, "githubUserInfoUri", base + "/github/user");
+        clients = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void failingProvider_OpensItsOwnBreaker_ThenRecoversThroughProbe() throws Exception {
+        googleMode = Mode.FAIL;
+        for (int i = 0; i < 4; i++) {
+            assertUnavailable(() -> signIn("google"), "PROVIDER_UNAVAILABLE");
+        }
+        assertEquals(4, googleHits.get());
+        assertEquals(CircuitBreaker.State.OPEN, guards.state(OAuthProviderGuards.GOOGLE));
+
+        // Open: refused without a request to the provider
+        assertUnavailable(() -> signIn("google"), "PROVIDER_UNAVAILABLE");
+        assertEquals(4, googleHits.get());
+        // The other provider is unaffected
+        assertEquals("bob@example.com", signIn("github").getEmail());
+
+        googleMode = Mode.OK;
+        Thread.sleep(350);
+        assertEquals("ann@example.com", signIn("google").getEmail());
+        assertEquals(CircuitBreaker.State.CLOSED, guards.state(OAuthProviderGuards.GOOGLE));
+
+        assertEquals(1.0, meterRegistry.get("oauth.provider.calls").tag("provider", "google")
+                .tag("outcome", "short_circuited").counter().count());
+        // Each failed call is reported with its cause; the 503 itself carries none
+        assertEquals(4.0, meterRegistry.counter("errors.reported").count());
+        assertEquals(0.0, meterRegistry.get("oauth.provider.circuit.state").tag("provider", "google")
+                .gauge().value());
+    }
+
+    @Test
+    void hangingProvider_HoldsAtMostItsBulkhead() throws Exception {
+        githubMode = Mode.SLOW;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> attempts = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            attempts.add(clients.submit(() -> {
+                start.await();
+                try {
+                    signIn("github");
+                    return "OK";
+                } catch (AppException ex) {
+                    return ex.getCode();
+                }
+            }));
+        }
+        start.countDown();
+
+        // Meanwhile the other provider answers normally
+        assertEquals("ann@example.com", signIn("google").getEmail());
+
+        int busy = 0;
+        int failed = 0;
+        for (Future<String> attempt : attempts) {
+            String outcome = attempt.get(5, TimeUnit.SECONDS);
+            if (outcome.equals("PROVIDER_BUSY")) {
+                busy++;
+            } else if (outcome.equals("PROVIDER_UNAVAILABLE")) {
+                failed++;
+            }
+        }
+        assertEquals(2, githubHits.get());
+        assertEquals(2, failed); // read timeout
+        assertEquals(4, busy);
+        assertEquals(2.0, meterRegistry.get("oauth.provider.bulkhead.available").tag("provider", "github")
+                .gauge().value());
+    }
+
+    private JwtResponse signIn(String provider) {
+        OAuth2CallbackRequest request = new OAuth2CallbackRequest();
+        request.setProvider(provider);
+        request.setCode("code");
+        return authService.processOAuthPost(request);
+    }
+
+    private static void assertUnavailable(Runnable call, String code) {
+        long start = System.nanoTime();
+        AppException ex = assertThrows(AppException.class, call::run);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+        assertEquals(code, ex.getCode());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(300), "fails fast");
+    }
+
+    private static void respond(HttpExchange exchange, Mode mode, AtomicInteger hits, String body)
+            throws IOException {
+        hits.incrementAndGet();
+        try (exchange) {
+            if (mode == Mode.SLOW) {
+                try {
+                    Thread.sleep(1500);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] bytes = (mode == Mode.FAIL ? "{\"error\":\"unavailable\"}" : body)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(mode == Mode.FAIL ? 503 : 200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException ex) {
+            // client gave up (read timeout)
+        }
+    }
+}
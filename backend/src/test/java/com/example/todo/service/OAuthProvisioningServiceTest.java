@@ -0,0 +1,148 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.OAuthCredential;
+import com.example.todo.entity.User;
+import com.example.todo.repository.OAuthCredentialRepository;
+import com.example.todo.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class OAuthProvisioningServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OAuthCredentialRepository credentialRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OAuthProvisioningService provisioningService;
+
+    // Stand-ins for the users.email and oauth_credentials(provider, provider_id) unique indexes
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+    private final Map<String, User> usersByCredential = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicInteger userInserts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        provisioningService = new OAuthProvisioningService(userRepository, credentialRepository, transactionManager);
+
+        when(credentialRepository.findUserByProviderAndProviderId(anyString(), anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(usersByCredential.get(key(inv.getArgument(0), inv.getArgument(1)))));
+        when(userRepository.findByEmail(anyString()))
+                .thenAnswer(inv -> Optional.ofNullable(usersByEmail.get((String) inv.getArgument(0))));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
+            User user = inv.getArgument(0);
+            synchronized (usersByEmail) {
+                if (usersByEmail.containsKey(user.getEmail())) {
+                    throw new DataIntegrityViolationException("Duplicate entry for users.email");
+                }
+                user.setId(ids.incrementAndGet());
+                userInserts.incrementAndGet();
+                for (OAuthCredential credential : user.getCredentials()) {
+                    usersByCredential.put(key(credential.getProvider(), credential.getProviderId()), user);
+                }
+                usersByEmail.put(user.getEmail(), user);
+            }
+            return user;
+        });
+        when(credentialRepository.saveAndFlush(any(OAuthCredential.class))).thenAnswer(inv -> {
+            OAuthCredential credential = inv.getArgument(0);
+            String key = key(credential.getProvider(), credential.getProviderId());
+            if (usersByCredential.putIfAbsent(key, credential.getUser()) != null) {
+                throw new DataIntegrityViolationException("Duplicate entry for oauth_credentials");
+            }
+            return credential;
+        });
+    }
+
+    @Test
+    void provision_ExistingCredential_ResolvesThroughIndexWithoutWrites() {
+        User existing = User.builder().id(7L).email("a@example.com").username("a@example.com").build();
+        usersByCredential.put(key("github", "42"), existing);
+
+        User user = provisioningService.provision("GitHub", "42", "a@example.com", "A");
+
+        assertEquals(7L, user.getId());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(credentialRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void provision_ExistingEmail_LinksCredentialOnly() {
+        User existing = User.builder().id(3L).email("b@example.com").username("b").build();
+        usersByEmail.put("b@example.com", existing);
+
+        User user = provisioningService.provision("google", "sub-1", "b@example.com", "B");
+
+        assertEquals(3L, user.getId());
+        assertSame(existing, usersByCredential.get(key("google", "sub-1")));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void provision_ConcurrentFirstLogins_CreateSingleUser() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return provisioningService.provision("google", "sub-9", "c@example.com", "C");
+                }));
+            }
+            start.countDown();
+
+            Long userId = null;
+            for (Future<User> result : results) {
+                User user = result.get(10, TimeUnit.SECONDS);
+                if (userId == null) {
+                    userId = user.getId();
+                }
+                assertEquals(userId, user.getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, userInserts.get());
+        assertNotNull(usersByCredential.get(key("google", "sub-9")));
+    }
+
+    private static String key(String provider, String providerId) {
+        return provider + ":" + providerId;
+    }
+}
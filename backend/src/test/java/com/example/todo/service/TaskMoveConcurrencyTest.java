@@ -0,0 +1,89 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.MoveTaskRequest;
+import com.example.todo.dto.TaskRequest;
+import com.example.todo.entity.User;
+import com.example.todo.exception.AppException;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:moves;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class TaskMoveConcurrencyTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void crossedMoves_NeverLeaveACycle() throws Exception {
+        User user = userRepository.save(User.builder().username("mover").email("mover@example.com").build());
+        UserPrincipal principal = UserPrincipal.create(user);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 30; round++) {
+                long a = taskService.createTask(principal, taskRequest("a" + round)).getId();
+                long b = taskService.createTask(principal, taskRequest("b" + round)).getId();
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<HttpStatus> aBelowB = pool.submit(() -> move(principal, a, b, start));
+                Future<HttpStatus> bBelowA = pool.submit(() -> move(principal, b, a, start));
+
+                List<HttpStatus> outcomes = List.of(aBelowB.get(), bBelowA.get());
+                assertEquals(1, outcomes.stream().filter(HttpStatus.OK::equals).count(), outcomes.toString());
+                assertTrue(Set.of(HttpStatus.OK, HttpStatus.BAD_REQUEST, HttpStatus.CONFLICT)
+                        .containsAll(outcomes), outcomes.toString());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM task_tree WHERE ancestor_id = descendant_id AND depth > 0", Integer.class));
+    }
+
+    private HttpStatus move(UserPrincipal principal, long taskId, long parentId, CyclicBarrier start)
+            throws Exception {
+        MoveTaskRequest request = new MoveTaskRequest();
+        request.setParentId(parentId);
+        start.await();
+        try {
+            taskService.moveTask(principal, taskId, request, null);
+            return HttpStatus.OK;
+        } catch (AppException ex) {
+            return ex.getStatus();
+        } catch (OptimisticLockingFailureException ex) {
+            // Locking a task the other move changed; GlobalExceptionHandler answers 409
+            return HttpStatus.CONFLICT;
+        }
+    }
+
+    private static TaskRequest taskRequest(String description) {
+        TaskRequest request = new TaskRequest();
+        request.setDescription(description);
+        return request;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.Priority;
+import com.example.todo.entity.RecurrenceFrequency;
+import com.example.todo.entity.Status;
+import com.example.todo.entity.Task;
+import com.example.todo.entity.TaskOccurrence;
+import com.example.todo.repository.TaskOccurrenceRepository;
+import com.example.todo.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOccurrenceServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskOccurrenceRepository occurrenceRepository;
+
+    @InjectMocks
+    private TaskOccurrenceService occurrenceService;
+
+    @Test
+    void occurrences_OldSeries_OnlyWindowIsExpanded() {
+        Task daily = series(1L, RecurrenceFrequency.DAILY, LocalDateTime.of(2000, 1, 1, 9, 0));
+
+        List<LocalDateTime> occurrences = TaskOccurrenceService.occurrences(daily,
+                LocalDateTime.of(2030, 6, 1, 0, 0), LocalDateTime.of(2030, 6, 7, 23, 59));
+
+        assertEquals(7, occurrences.size());
+        assertEquals(LocalDateTime.of(2030, 6, 1, 9, 0), occurrences.get(0));
+        assertEquals(LocalDateTime.of(2030, 6, 7, 9, 0), occurrences.get(6));
+    }
+
+    @Test
+    void occurrences_MonthlyFromMonthEnd_DoesNotDrift() {
+        Task monthly = series(1L, RecurrenceFrequency.MONTHLY, LocalDateTime.of(2030, 1, 31, 9, 0));
+
+        List<LocalDateTime> occurrences = TaskOccurrenceService.occurrences(monthly,
+                LocalDateTime.of(2030, 2, 1, 0, 0), LocalDateTime.of(2030, 3, 31, 23, 59));
+
+        assertEquals(List.of(LocalDateTime.of(2030, 2, 28, 9, 0), LocalDateTime.of(2030, 3, 31, 9, 0)),
+                occurrences);
+    }
+
+    @Test
+    void listWithOccurrences_AppliesOverridesAndMergesByDeadline() {
+        LocalDateTime from = LocalDateTime.of(2030, 6, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 6, 3, 23, 59);
+        Task daily = series(1L, RecurrenceFrequency.DAILY, LocalDateTime.of(2030, 5, 1, 9, 0));
+        Task oneOff = Task.builder().id(2L).description("one-off").priority(Priority.NORMAL)
+                .status(Status.IN_PROGRESS).deadline(LocalDateTime.of(2030, 6, 2, 12, 0)).build();
+
+        when(taskRepository.findOneOffInWindow(eq(1L), isNull(), isNull(), eq(from), eq(to), any()))
+                .thenReturn(new PageImpl<>(List.of(oneOff)));
+        when(taskRepository.findRecurringInWindow(1L, null, from, to)).thenReturn(List.of(daily));
+        when(occurrenceRepository.findByTaskIdInAndOccurrenceAtBetween(anyCollection(), eq(from), eq(to)))
+                .thenReturn(List.of(
+                        TaskOccurrence.builder().task(daily).occurrenceAt(LocalDateTime.of(2030, 6, 1, 9, 0))
+                                .status(Status.DONE).build(),
+                        TaskOccurrence.builder().task(daily).occurrenceAt(LocalDateTime.of(2030, 6, 3, 9, 0))
+                                .status(Status.NOT_STARTED).skipped(true).build()));
+
+        Page<TaskResponse> page = occurrenceService.listWithOccurrences(1L, null, null, from, to,
+                PageRequest.of(0, 10, Sort.by("deadline")));
+
+        assertEquals(3, page.getTotalElements());
+        List<TaskResponse> content = page.getContent();
+        assertEquals(LocalDateTime.of(2030, 6, 1, 9, 0), content.get(0).getOccurrence());
+        assertEquals(Status.DONE, content.get(0).getStatus());
+        assertEquals(LocalDateTime.of(2030, 6, 2, 9, 0), content.get(1).getDeadline());
+        assertEquals(Status.NOT_STARTED, content.get(1).getStatus());
+        assertEquals(2L, content.get(2).getId());
+        assertNull(content.get(2).getOccurrence());
+    }
+
+    private static Task series(Long id, RecurrenceFrequency frequency, LocalDateTime anchor) {
+        return Task.builder()
+                .id(id)
+                .description("series")
+                .priority(Priority.NORMAL)
+                .status(Status.NOT_STARTED)
+                .deadline(anchor)
+                .recurrenceFrequency(frequency)
+                .recurrenceInterval(1)
+                .build();
+    }
+}
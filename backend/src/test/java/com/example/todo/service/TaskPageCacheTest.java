@@ -0,0 +1,83 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskPageCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskPageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TaskPageCache(meterRegistry, 1024 * 1024);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_RepeatedQuery_ServedFromCache() {
+        TaskQuery query = query(1L, 0);
+
+        Page<TaskResponse> first = cache.get(query, loader("a"));
+        Page<TaskResponse> second = cache.get(query, loader("a"));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("tasks.page.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void invalidate_OnlyDropsThatUsersPages() {
+        cache.get(query(1L, 0), loader("a"));
+        cache.get(query(2L, 0), loader("b"));
+
+        cache.invalidate(1L);
+        cache.get(query(1L, 0), loader("a"));
+        cache.get(query(2L, 0), loader("b"));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_OverWeightBound_EvictsBySize() throws InterruptedException {
+        SimpleMeterRegistry smallRegistry = new SimpleMeterRegistry();
+        TaskPageCache small = new TaskPageCache(smallRegistry, 4 * 1024);
+        String description = "x".repeat(1000);
+        for (int page = 0; page < 10; page++) {
+            small.get(query(1L, page), loader(description));
+        }
+
+        // Caffeine evicts on a background executor
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        double evictions = 0;
+        while (evictions == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            evictions = smallRegistry.get("cache.evictions").functionCounter().count();
+        }
+        assertTrue(evictions > 0, "pages beyond the weight bound should have been evicted");
+    }
+
+    private Supplier<Page<TaskResponse>> loader(String description) {
+        return () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of(TaskResponse.builder().id(1L).description(description).build()));
+        };
+    }
+
+    private static TaskQuery query(Long userId, int page) {
+        return new TaskQuery(userId, null, null, null, null, null, PageRequest.of(page, 20));
+    }
+}
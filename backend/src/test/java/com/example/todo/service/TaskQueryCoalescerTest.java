@@ -0,0 +1,99 @@
+package com.example.todo.service;
+
+import com.example.todo.dto.TaskResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskQueryCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskQueryCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new TaskQueryCoalescer(meterRegistry);
+    }
+
+    @Test
+    void execute_IdenticalConcurrentQueries_ShareOneLoad() throws Exception {
+        TaskQuery query = query(1L);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        Page<TaskResponse> page = new PageImpl<>(List.of());
+
+        CompletableFuture<Page<TaskResponse>> leader = CompletableFuture.supplyAsync(() -> coalescer.execute(query, () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return page;
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Page<TaskResponse>> follower = CompletableFuture.supplyAsync(() -> coalescer.execute(query, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of());
+        }));
+        while (meterRegistry.counter("tasks.query.coalesced").count() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertSame(page, leader.get(5, TimeUnit.SECONDS));
+        assertSame(page, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("tasks.query.executed").count());
+    }
+
+    @Test
+    void invalidate_WriteDuringQuery_NextReadLoadsAgain() throws Exception {
+        TaskQuery query = query(1L);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<Page<TaskResponse>> leader = CompletableFuture.supplyAsync(() -> coalescer.execute(query, () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return new PageImpl<>(List.of());
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        coalescer.invalidate(1L);
+        coalescer.execute(query, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(List.of());
+        });
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, loads.get());
+        assertEquals(0.0, meterRegistry.counter("tasks.query.coalesced").count());
+    }
+
+    private static TaskQuery query(Long userId) {
+        return new TaskQuery(userId, null, null, null, null, null, PageRequest.of(0, 20));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.todo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rank;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.task-rank.rebalance-length=4",
+        "app.task-rank.rebalance-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class TaskRankRebalanceTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRankService taskRankService;
+
+    @Test
+    void longRanks_AreRenumberedInTheBackgroundKeepingTheOrder() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"ranker\",\"email\":\"ranker@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        String bearer = "Bearer " + read(mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"identifier\":\"ranker\",\"password\":\"secret123\"}"))
+                .andReturn()).path("token").asText();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ids.add(read(mockMvc.perform(post("/api/tasks").header("Authorization", bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"description\":\"task " + i + "\"}"))
+                    .andExpect(status().isCreated())
+                    .andReturn()).path("id").asLong());
+        }
+        // Alternately drop the last two tasks into the shrinking gap after the first one
+        long after = ids.get(0);
+        long before = ids.get(1);
+        for (int i = 0; i < 40; i++) {
+            long moved = ids.get(2 + i % 2);
+            mockMvc.perform(put("/api/tasks/" + moved + "/position").header("Authorization", bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"afterId\":" + after + ",\"beforeId\":" + before + "}"))
+                    .andExpect(status().isOk());
+            before = moved;
+        }
+        List<Long> order = new ArrayList<>();
+        JsonNode page = list(bearer);
+        page.path("content").forEach(task -> order.add(task.path("id").asLong()));
+        assertTrue(page.path("content").get(1).path("manualRank").asText().length() > 4);
+
+        taskRankService.rebalancePending();
+
+        JsonNode rebalanced = list(bearer);
+        for (int i = 0; i < order.size(); i++) {
+            JsonNode task = rebalanced.path("content").get(i);
+            assertEquals(order.get(i), task.path("id").asLong());
+            assertTrue(task.path("manualRank").asText().length() <= 2, task.path("manualRank").asText());
+        }
+    }
+
+    private JsonNode list(String bearer) throws Exception {
+        return read(mockMvc.perform(get("/api/tasks").param("sort", "manualRank").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private JsonNode read(MvcResult result) throws Exception {
+        return json.readTree(result.getResponse().getContentAsByteArray());
+    }
+}
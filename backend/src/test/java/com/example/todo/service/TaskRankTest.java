@@ -0,0 +1,68 @@
+package com.example.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskRankTest {
+
+    @Test
+    void between_SortsBetweenItsBounds() {
+        assertEquals("a0", TaskRank.between(null, null));
+        assertEquals("a1", TaskRank.between("a0", null));
+        assertEquals("Zz", TaskRank.between(null, "a0"));
+        assertEquals("b00", TaskRank.between("az", null));
+        assertEquals("a0V", TaskRank.between("a0", "a1"));
+        assertEquals("a0l", TaskRank.between("a0V", "a1"));
+        assertEquals("a0G", TaskRank.between("a0", "a0V"));
+        assertThrows(IllegalArgumentException.class, () -> TaskRank.between("a1", "a0"));
+        assertThrows(IllegalArgumentException.class, () -> TaskRank.between("a0", "a0"));
+        assertThrows(IllegalArgumentException.class, () -> TaskRank.between("a00", null));
+    }
+
+    @Test
+    void randomPlacements_KeepTheListOrdered() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int slot = random.nextInt(keys.size() + 1);
+            String lower = slot == 0 ? null : keys.get(slot - 1);
+            String upper = slot == keys.size() ? null : keys.get(slot);
+            String key = TaskRank.between(lower, upper);
+            if (lower != null) {
+                assertTrue(lower.compareTo(key) < 0, lower + " < " + key);
+            }
+            if (upper != null) {
+                assertTrue(key.compareTo(upper) < 0, key + " < " + upper);
+            }
+            keys.add(slot, key);
+        }
+    }
+
+    @Test
+    void appendingAndPrepending_KeepsKeysShort() {
+        String last = null;
+        String first = null;
+        for (int i = 0; i < 100_000; i++) {
+            last = TaskRank.between(last, null);
+            first = TaskRank.between(null, first == null ? "a0" : first);
+        }
+        assertTrue(last.length() <= 4, last);
+        assertTrue(first.length() <= 4, first);
+    }
+
+    @Test
+    void repeatedPlacementIntoOneGap_GrowsSlowly() {
+        String lower = "a0";
+        String upper = "a1";
+        for (int i = 0; i < 60; i++) {
+            upper = TaskRank.between(lower, upper);
+        }
+        // Each character of fraction absorbs about log2(62) halvings of the gap
+        assertTrue(upper.length() <= 14, upper);
+    }
+}
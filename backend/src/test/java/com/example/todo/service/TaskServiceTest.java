@@ -1,26 +1,39 @@
 package com.example.todo.service;
 
+import com.example.todo.dto.BulkUpdateRequest;
+import com.example.todo.dto.BulkUpdateResponse;
+import com.example.todo.dto.MoveTaskRequest;
+import com.example.todo.dto.TaskNodeResponse;
 import com.example.todo.dto.TaskRequest;
 import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.ListRole;
 import com.example.todo.entity.Priority;
 import com.example.todo.entity.Status;
 import com.example.todo.entity.Task;
 import com.example.todo.entity.User;
+import com.example.todo.event.TaskEventLog;
+import com.example.todo.exception.AppException;
+import com.example.todo.exception.ForbiddenException;
+import com.example.todo.reminder.DeadlineReminderService;
 import com.example.todo.repository.TaskRepository;
 import com.example.todo.repository.UserRepository;
 import com.example.todo.security.UserPrincipal;
+import com.example.todo.stats.TaskStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +45,36 @@ class TaskServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TaskQueryCoalescer taskQueryCoalescer;
+
+    @Mock
+    private TaskPageCache taskPageCache;
+
+    @Mock
+    private TaskEventLog taskEventLog;
+
+    @Mock
+    private TaskOccurrenceService taskOccurrenceService;
+
+    @Mock
+    private DeadlineReminderService deadlineReminderService;
+
+    @Mock
+    private TaskStatsService taskStatsService;
+
+    @Mock
+    private TaskHierarchyService taskHierarchyService;
+
+    @Mock
+    private TaskTagService taskTagService;
+
+    @Mock
+    private TaskRankService taskRankService;
+
+    @Mock
+    private TaskListAccess taskListAccess;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -54,7 +97,7 @@ class TaskServiceTest {
         request.setDescription("Test Task");
         request.setPriority(Priority.URGENT);
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
             Task t = invocation.getArgument(0);
             t.setId(100L);
@@ -72,4 +115,159 @@ class TaskServiceTest {
         assertEquals(Status.NOT_STARTED, response.getStatus());
         verify(taskRepository).save(any(Task.class));
     }
+
+    @Test
+    void bulkUpdate_SingleOwnerScopedStatement_InvalidatesCaches() {
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setStatus(Status.DONE);
+
+        when(taskRepository.bulkUpdateFiltered(eq(1L), isNull(), eq(Status.MISSED_DEADLINE), isNull(), isNull(),
+                isNull(), eq(Status.DONE), eq(Status.DONE), eq(Status.MISSED_DEADLINE), any(LocalDateTime.class)))
+                .thenReturn(12);
+
+        BulkUpdateResponse response = taskService.bulkUpdate(userPrincipal, null, Status.MISSED_DEADLINE,
+                null, null, request);
+
+        assertEquals(12, response.getUpdated());
+        verify(taskQueryCoalescer).invalidate(1L);
+        verify(taskPageCache).invalidate(1L);
+        verify(taskRepository, never()).save(any(Task.class));
+    }
+
+    @Test
+    void bulkUpdate_NothingToSet_Rejected() {
+        assertThrows(AppException.class,
+                () -> taskService.bulkUpdate(userPrincipal, null, null, null, null, new BulkUpdateRequest()));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void updateTask_StaleIfMatch_PreconditionFailedWithoutWrite() {
+        Task task = Task.builder().id(5L).owner(user).description("Task").priority(Priority.NORMAL)
+                .status(Status.NOT_STARTED).version(3L).build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+
+        AppException ex = assertThrows(AppException.class,
+                () -> taskService.updateTask(userPrincipal, 5L, new TaskRequest(), 2L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getStatus());
+        verify(taskRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateTask_ConcurrentCommitBeforeFlush_PreconditionFailed() {
+        Task task = Task.builder().id(5L).owner(user).description("Task").priority(Priority.NORMAL)
+                .status(Status.NOT_STARTED).version(3L).build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskRepository.saveAndFlush(task))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 5L));
+
+        AppException ex = assertThrows(AppException.class,
+                () -> taskService.updateTask(userPrincipal, 5L, new TaskRequest(), 3L));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getStatus());
+        verify(taskPageCache, never()).invalidate(any());
+    }
+
+    @Test
+    void createTask_WithParent_AddsClosurePathsBelowParent() {
+        Task parent = Task.builder().id(7L).owner(user).description("Project").build();
+        TaskRequest request = new TaskRequest();
+        request.setDescription("Step");
+        request.setParentId(7L);
+
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(taskRepository.findById(7L)).thenReturn(Optional.of(parent));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task t = invocation.getArgument(0);
+            t.setId(100L);
+            return t;
+        });
+
+        TaskResponse response = taskService.createTask(userPrincipal, request);
+
+        assertEquals(7L, response.getParentId());
+        verify(taskHierarchyService).attach(100L, 7L);
+    }
+
+    @Test
+    void moveTask_BelowOwnDescendant_RejectedWithoutWrite() {
+        Task task = Task.builder().id(5L).owner(user).description("Task").version(1L).build();
+        Task descendant = Task.builder().id(6L).owner(user).parentId(5L).description("Sub").build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskRepository.findById(6L)).thenReturn(Optional.of(descendant));
+        when(taskHierarchyService.lockPathForMove(5L, 6L)).thenReturn(List.of(5L, 6L));
+        MoveTaskRequest request = new MoveTaskRequest();
+        request.setParentId(6L);
+
+        AppException ex = assertThrows(AppException.class,
+                () -> taskService.moveTask(userPrincipal, 5L, request, null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(taskHierarchyService, never()).move(any(), any());
+        verify(taskRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void getSubtree_RollsUpCompletionOverAllDescendants() {
+        Task root = Task.builder().id(1L).owner(user).description("Root").status(Status.IN_PROGRESS).build();
+        Task a = Task.builder().id(2L).owner(user).parentId(1L).description("A").status(Status.DONE).build();
+        Task b = Task.builder().id(3L).owner(user).parentId(1L).description("B").status(Status.NOT_STARTED).build();
+        Task a1 = Task.builder().id(4L).owner(user).parentId(2L).description("A1").status(Status.DONE).build();
+        when(taskRepository.findSubtree(1L)).thenReturn(List.of(root, a, b, a1));
+        when(taskTagService.renderer(1L)).thenReturn(TaskResponse::fromEntity);
+
+        TaskNodeResponse tree = taskService.getSubtree(userPrincipal, 1L);
+
+        assertEquals(3, tree.getSubtasks());
+        assertEquals(2, tree.getCompletedSubtasks());
+        assertEquals(66, tree.getPercentComplete());
+        assertEquals(2, tree.getChildren().size());
+        TaskNodeResponse nodeA = tree.getChildren().get(0);
+        assertEquals(100, nodeA.getPercentComplete());
+        assertEquals(1, nodeA.getChildren().size());
+        assertNull(tree.getChildren().get(1).getPercentComplete());
+    }
+
+    @Test
+    void updateTask_ListEditor_WritesUnderTheOwner() {
+        User owner = User.builder().id(2L).username("owner").build();
+        Task task = Task.builder().id(5L).owner(owner).listId(9L).description("Shared").priority(Priority.NORMAL)
+                .status(Status.NOT_STARTED).version(1L).build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskListAccess.allows(1L, 9L, ListRole.EDITOR)).thenReturn(true);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
+        TaskRequest request = new TaskRequest();
+        request.setDescription("Edited by a member");
+
+        TaskResponse response = taskService.updateTask(userPrincipal, 5L, request, null);
+
+        assertEquals("Edited by a member", response.getDescription());
+        assertEquals(9L, response.getListId());
+        verify(taskTagService).tagsOf(2L, 5L);
+        verify(taskStatsService).recordChange(eq(2L), any(), any());
+        verify(taskPageCache).invalidate(2L);
+    }
+
+    @Test
+    void updateTask_ListViewer_ForbiddenWithoutWrite() {
+        User owner = User.builder().id(2L).username("owner").build();
+        Task task = Task.builder().id(5L).owner(owner).listId(9L).description("Shared").build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+        when(taskListAccess.allows(1L, 9L, ListRole.EDITOR)).thenReturn(false);
+
+        assertThrows(ForbiddenException.class,
+                () -> taskService.updateTask(userPrincipal, 5L, new TaskRequest(), null));
+        verify(taskRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void getTask_OwnTask_NoMembershipLookup() {
+        Task task = Task.builder().id(5L).owner(user).description("Mine").build();
+        when(taskRepository.findById(5L)).thenReturn(Optional.of(task));
+
+        taskService.getTask(userPrincipal, 5L);
+
+        verifyNoInteractions(taskListAccess);
+    }
 }
@@ -0,0 +1,146 @@
+package com.example.todo.service;
+
+import com.example.todo.entity.TaskTag;
+import com.example.todo.repository.TaskTagRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskTagIndexTest {
+
+    private TaskTagRepository repository;
+    private TaskTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TaskTagRepository.class);
+        when(repository.findByUserId(1L)).thenReturn(List.of(
+                tag(1, "work"), tag(1, "urgent"),
+                tag(2, "work"), tag(2, "blocked"),
+                tag(3, "work"), tag(3, "urgent"), tag(3, "blocked"),
+                tag(4, "home")));
+        index = new TaskTagIndex(repository, new SimpleMeterRegistry(), 100, 30);
+    }
+
+    @Test
+    void evaluate_AllOfAndNot() {
+        TaskTagIndex.Match match = index.forUser(1L)
+                .evaluate(TagFilter.of(List.of("work", "urgent"), null, List.of("blocked")));
+
+        assertFalse(match.isExcluded());
+        assertArrayEquals(new long[] { 1 }, match.getIds().toArray());
+    }
+
+    @Test
+    void evaluate_AnyOf() {
+        TaskTagIndex.Match match = index.forUser(1L).evaluate(TagFilter.of(null, List.of("urgent", "Home "), null));
+
+        assertArrayEquals(new long[] { 1, 3, 4 }, match.getIds().toArray());
+    }
+
+    @Test
+    void evaluate_UnknownRequiredTag_MatchesNothing() {
+        TaskTagIndex.Match match = index.forUser(1L).evaluate(TagFilter.of(List.of("work", "nope"), null, null));
+
+        assertFalse(match.isExcluded());
+        assertTrue(match.getIds().isEmpty());
+    }
+
+    @Test
+    void evaluate_OnlyNotTerms_ReturnsIdsToExclude() {
+        TaskTagIndex.Match match = index.forUser(1L).evaluate(TagFilter.of(null, null, List.of("blocked")));
+
+        assertTrue(match.isExcluded());
+        assertArrayEquals(new long[] { 2, 3 }, match.getIds().toArray());
+    }
+
+    @Test
+    void setTags_UpdatesLoadedIndexWithoutReloading() {
+        TaskTagIndex.UserTags tags = index.forUser(1L);
+
+        index.setTags(1L, 3L, List.of("home"));
+        index.setTags(1L, 5L, List.of("urgent"));
+
+        assertEquals(List.of("home"), tags.tagsOf(3));
+        assertEquals(List.of("urgent"), tags.tagsOf(5));
+        long[] urgent = tags.evaluate(TagFilter.of(List.of("urgent"), null, null)).getIds().toArray();
+        assertEquals("[1, 5]", Arrays.toString(urgent));
+        verify(repository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    void setTags_UserNotLoaded_LeftForLazyLoad() {
+        index.setTags(2L, 9L, List.of("work"));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void forUser_ConcurrentCallers_ShareOneLoadAndKeepWritesMadeDuringIt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByUserId(2L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(tag(7, "work"));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<TaskTagIndex.UserTags> first = executor.submit(() -> index.forUser(2L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<TaskTagIndex.UserTags> second = executor.submit(() -> index.forUser(2L));
+            index.setTags(2L, 8L, List.of("work"));
+            release.countDown();
+
+            TaskTagIndex.UserTags tags = first.get(5, TimeUnit.SECONDS);
+            assertSame(tags, second.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("work"), tags.tagsOf(8));
+            verify(repository, times(1)).findByUserId(2L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void forUser_FailedLoad_IsRetried() {
+        when(repository.findByUserId(2L))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(List.of(tag(7, "work")));
+
+        assertThrows(IllegalStateException.class, () -> index.forUser(2L));
+        assertEquals(List.of("work"), index.forUser(2L).tagsOf(7));
+    }
+
+    @Test
+    void forUser_ExpiresAfterLoadEvenWhenReadAndUpdated() {
+        AtomicLong nanos = new AtomicLong();
+        TaskTagIndex expiring = new TaskTagIndex(repository, new SimpleMeterRegistry(), 100, 30, nanos::get);
+        expiring.forUser(1L);
+
+        for (int minute = 10; minute < 40; minute += 10) {
+            nanos.set(TimeUnit.MINUTES.toNanos(minute) - 1);
+            expiring.forUser(1L);
+            expiring.setTags(1L, 9L, List.of("work"));
+        }
+        nanos.set(TimeUnit.MINUTES.toNanos(30));
+        expiring.forUser(1L);
+
+        verify(repository, times(2)).findByUserId(1L);
+    }
+
+    private static TaskTag tag(long taskId, String name) {
+        return TaskTag.builder().taskId(taskId).name(name).userId(1L).build();
+    }
+}
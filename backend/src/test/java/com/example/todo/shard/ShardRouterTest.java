@@ -0,0 +1,73 @@
+package com.example.todo.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterTest {
+
+    @Test
+    void shardOf_MapsUserBucketsToConfiguredShards() {
+        ShardRouter router = new ShardRouter(properties(8, shard("a", "0-1,6-7"), shard("b", "2-5")));
+
+        assertEquals(List.of("a", "b"), router.shards());
+        assertEquals("a", router.shardOf(1));
+        assertEquals("b", router.shardOf(2));
+        assertEquals("b", router.shardOf(13));
+        assertEquals("a", router.shardOf(15));
+        assertEquals(1, router.firstTaskId("a"));
+        assertEquals(ShardRouter.ID_RANGE + 1, router.firstTaskId("b"));
+        assertEquals("a", router.shardOfTask(ShardRouter.ID_RANGE));
+        assertEquals("b", router.shardOfTask(ShardRouter.ID_RANGE + 1));
+        assertNull(router.shardOfTask(2 * ShardRouter.ID_RANGE + 1));
+        assertNull(router.shardOfTask(0));
+    }
+
+    @Test
+    void constructor_OverlappingOrMissingBuckets_Rejected() {
+        assertThrows(IllegalStateException.class,
+                () -> new ShardRouter(properties(4, shard("a", "0-2"), shard("b", "2-3"))));
+        assertThrows(IllegalStateException.class,
+                () -> new ShardRouter(properties(4, shard("a", "0-1"), shard("b", "3"))));
+        assertThrows(IllegalStateException.class,
+                () -> new ShardRouter(properties(4, shard("a", "0-4"))));
+    }
+
+    @Test
+    void disabled_SingleDefaultShard() {
+        ShardRouter router = new ShardRouter(new ShardingProperties());
+
+        assertEquals(List.of(ShardRouter.DEFAULT_SHARD), router.shards());
+        assertEquals(ShardRouter.DEFAULT_SHARD, router.shardOf(42));
+    }
+
+    @Test
+    void callOn_RestoresPreviousShard() {
+        ShardRouter router = new ShardRouter(properties(2, shard("a", "0"), shard("b", "1")));
+
+        String inner = router.callOn("a", () -> router.callForUser(1, ShardContext::current));
+
+        assertEquals("b", inner);
+        assertNull(ShardContext.current());
+        Map<String, List<Long>> byShard = router.partition(List.of(1L, 2L, 3L), id -> id);
+        assertEquals(Map.of("b", List.of(1L, 3L), "a", List.of(2L)), byShard);
+    }
+
+    private static ShardingProperties properties(int buckets, ShardingProperties.Shard... shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setBuckets(buckets);
+        properties.setShards(List.of(shards));
+        return properties;
+    }
+
+    private static ShardingProperties.Shard shard(String name, String buckets) {
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setName(name);
+        shard.setBuckets(buckets);
+        return shard;
+    }
+}
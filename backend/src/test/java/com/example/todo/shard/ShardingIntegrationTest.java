@@ -0,0 +1,97 @@
+package com.example.todo.shard;
+
+import com.example.todo.dto.TaskRequest;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.User;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.security.UserPrincipal;
+import com.example.todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A directory and two shards, each an embedded database migrated through the sharded Flyway setup
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ShardingIntegrationTest.H2 + "directory" + ShardingIntegrationTest.H2_OPTIONS,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.sharding.enabled=true",
+        "app.sharding.buckets=2",
+        "app.sharding.shards[0].name=even",
+        "app.sharding.shards[0].url=" + ShardingIntegrationTest.H2 + "even" + ShardingIntegrationTest.H2_OPTIONS,
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[0].buckets=0",
+        "app.sharding.shards[1].name=odd",
+        "app.sharding.shards[1].url=" + ShardingIntegrationTest.H2 + "odd" + ShardingIntegrationTest.H2_OPTIONS,
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[1].buckets=1"
+})
+class ShardingIntegrationTest {
+
+    static final String H2 = "jdbc:h2:mem:";
+    static final String H2_OPTIONS = ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Test
+    void tasksLiveOnTheOwnersShard_UsersOnTheDirectory() {
+        User first = userRepository.save(User.builder().username("first").email("first@example.com").build());
+        User second = userRepository.save(User.builder().username("second").email("second@example.com").build());
+
+        TaskResponse firstTask = createTask(first, "first's task");
+        TaskResponse secondTask = createTask(second, "second's task");
+
+        User oddUser = first.getId() % 2 == 1 ? first : second;
+        User evenUser = oddUser == first ? second : first;
+        JdbcTemplate directory = new JdbcTemplate(dataSource.getDirectory());
+        JdbcTemplate even = new JdbcTemplate(shard("even"));
+        JdbcTemplate odd = new JdbcTemplate(shard("odd"));
+
+        assertEquals(2, directory.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertEquals(0, directory.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class));
+        assertEquals(List.of(evenUser.getId()), even.queryForList("SELECT user_id FROM tasks", Long.class));
+        assertEquals(List.of(oddUser.getId()), odd.queryForList("SELECT user_id FROM tasks", Long.class));
+        assertEquals(0, even.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+
+        // Disjoint id ranges keep task ids unique across shards
+        assertNotEquals(firstTask.getId(), secondTask.getId());
+        assertEquals(shardRouter.firstTaskId("odd"),
+                odd.queryForObject("SELECT MIN(id) FROM tasks", Long.class));
+
+        List<TaskResponse> listed = shardRouter.callForUser(first.getId(), () -> taskService
+                .getTasks(UserPrincipal.create(first), null, null, null, null, null, PageRequest.of(0, 20))
+                .getContent());
+        assertEquals(List.of("first's task"), listed.stream().map(TaskResponse::getDescription).toList());
+    }
+
+    private TaskResponse createTask(User user, String description) {
+        TaskRequest request = new TaskRequest();
+        request.setDescription(description);
+        return shardRouter.callForUser(user.getId(),
+                () -> taskService.createTask(UserPrincipal.create(user), request));
+    }
+
+    private DataSource shard(String name) {
+        return dataSource.getShards().get(name);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.todo.shard;
+
+import com.example.todo.dto.ListMemberRequest;
+import com.example.todo.dto.TaskListRequest;
+import com.example.todo.dto.TaskListResponse;
+import com.example.todo.dto.TaskRequest;
+import com.example.todo.dto.TaskResponse;
+import com.example.todo.entity.ListRole;
+import com.example.todo.entity.User;
+import com.example.todo.repository.UserRepository;
+import com.example.todo.security.UserPrincipal;
+import com.example.todo.service.TaskListService;
+import com.example.todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A list owned by a user on one shard, used by a member whose own tasks live on the other
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + SharedListShardingTest.H2 + "lists-directory" + SharedListShardingTest.H2_OPTIONS,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.sharding.enabled=true",
+        "app.sharding.buckets=2",
+        "app.sharding.shards[0].name=even",
+        "app.sharding.shards[0].url=" + SharedListShardingTest.H2 + "lists-even" + SharedListShardingTest.H2_OPTIONS,
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[0].buckets=0",
+        "app.sharding.shards[1].name=odd",
+        "app.sharding.shards[1].url=" + SharedListShardingTest.H2 + "lists-odd" + SharedListShardingTest.H2_OPTIONS,
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[1].buckets=1"
+})
+class SharedListShardingTest {
+
+    static final String H2 = ShardingIntegrationTest.H2;
+    static final String H2_OPTIONS = ShardingIntegrationTest.H2_OPTIONS;
+
+    @Autowired
+    private TaskListService taskListService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Test
+    void listTasksStayOnTheOwnersShard() {
+        User owner = userRepository.save(User.builder().username("owner").email("owner@example.com").build());
+        User member = userRepository.save(User.builder().username("member").email("member@example.com").build());
+        assertNotEquals(shardRouter.shardOf(owner.getId()), shardRouter.shardOf(member.getId()));
+        UserPrincipal ownerPrincipal = UserPrincipal.create(owner);
+        UserPrincipal memberPrincipal = UserPrincipal.create(member);
+
+        // As in a request, the member's calls start out on the member's shard
+        TaskListResponse list = shardRouter.callForUser(owner.getId(), () -> {
+            TaskListResponse created = taskListService.createList(ownerPrincipal, listRequest("Team"));
+            taskListService.putMember(ownerPrincipal, created.getId(), memberRequest("member", ListRole.EDITOR));
+            return created;
+        });
+        TaskResponse task = shardRouter.callForUser(member.getId(),
+                () -> taskListService.createTask(memberPrincipal, list.getId(), taskRequest("from the member")));
+
+        String ownerShard = shardRouter.shardOf(owner.getId());
+        JdbcTemplate ownerTasks = new JdbcTemplate(dataSource.getShards().get(ownerShard));
+        assertEquals(List.of(owner.getId()),
+                ownerTasks.queryForList("SELECT user_id FROM tasks WHERE list_id = ?", Long.class, list.getId()));
+        assertEquals(ownerShard, shardRouter.shardOfTask(task.getId()));
+        assertEquals(1, new JdbcTemplate(dataSource.getDirectory())
+                .queryForObject("SELECT COUNT(*) FROM task_list_members WHERE user_id = ?", Integer.class,
+                        member.getId()));
+
+        List<TaskResponse> listed = shardRouter.callForUser(member.getId(), () -> taskListService
+                .getTasks(memberPrincipal, list.getId(), PageRequest.of(0, 20)).getContent());
+        assertEquals(List.of("from the member"), listed.stream().map(TaskResponse::getDescription).toList());
+
+        // ShardContextFilter routes /api/tasks/{id} by the id's range
+        TaskResponse read = shardRouter.callOn(shardRouter.shardOfTask(task.getId()),
+                () -> taskService.getTask(memberPrincipal, task.getId()));
+        assertEquals(list.getId(), read.getListId());
+
+        // Deleting the list hands its tasks back to the owner
+        shardRouter.callForUser(owner.getId(), () -> {
+            taskListService.deleteList(ownerPrincipal, list.getId());
+            return null;
+        });
+        assertEquals(0, ownerTasks.queryForObject("SELECT COUNT(*) FROM tasks WHERE list_id IS NOT NULL",
+                Integer.class));
+        assertTrue(taskListService.getLists(memberPrincipal).isEmpty());
+    }
+
+    private static TaskListRequest listRequest(String name) {
+        TaskListRequest request = new TaskListRequest();
+        request.setName(name);
+        return request;
+    }
+
+    private static ListMemberRequest memberRequest(String username, ListRole role) {
+        ListMemberRequest request = new ListMemberRequest();
+        request.setUsername(username);
+        request.setRole(role);
+        return request;
+    }
+
+    private static TaskRequest taskRequest(String description) {
+        TaskRequest request = new TaskRequest();
+        request.setDescription(description);
+        return request;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.todo.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementFilterTest {
+
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder(60_000);
+
+    @Test
+    void repeatedStatement_IsCountedAndFlaggedPerEndpoint() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlStatementFilter filter = new SqlStatementFilter(registry, 5);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tasks");
+
+        try (Connection connection = recorder.wrap(DriverManager.getConnection("jdbc:h2:mem:recorder"))) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("CREATE TABLE owners (id BIGINT PRIMARY KEY)");
+            }
+            filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+                // One lookup per row, the classic lazy-association pattern
+                for (long id = 1; id <= 6; id++) {
+                    try (PreparedStatement select = connection.prepareStatement("SELECT id FROM owners WHERE id = ?")) {
+                        select.setLong(1, id);
+                        try (ResultSet rows = select.executeQuery()) {
+                            assertFalse(rows.next());
+                        }
+                    } catch (java.sql.SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            });
+        }
+
+        StatementLog statements = (StatementLog) request.getAttribute(SqlStatementFilter.STATEMENTS_ATTRIBUTE);
+        assertEquals(6, statements.count(), "DDL outside the request is not counted");
+        assertEquals(6, statements.executions().get("SELECT id FROM owners WHERE id = ?"));
+        assertEquals(6.0, registry.get("http.server.requests.sql").tag("uri", "/api/tasks").summary().totalAmount());
+        assertEquals(1.0, registry.get("http.server.requests.sql.repeated").tag("uri", "/api/tasks").counter()
+                .count());
+        assertNull(StatementLog.current());
+    }
+
+    @Test
+    void wrappedConnection_KeepsIdentityAndUnwraps() throws Exception {
+        try (Connection raw = DriverManager.getConnection("jdbc:h2:mem:identity")) {
+            Connection wrapped = recorder.wrap(raw);
+            assertEquals(wrapped, wrapped);
+            assertNotEquals(wrapped, raw);
+            assertSame(raw, wrapped.unwrap(org.h2.jdbc.JdbcConnection.class));
+        }
+    }
+}
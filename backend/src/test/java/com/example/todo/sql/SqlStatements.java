@@ -0,0 +1,61 @@
+package com.example.todo.sql;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MockMvc matchers over the statements {@link SqlStatementFilter} recorded for
+ * a request, e.g. {@code .andExpect(SqlStatements.atMost(2))}.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static StatementLog of(MvcResult result) {
+        StatementLog statements = (StatementLog) result.getRequest()
+                .getAttribute(SqlStatementFilter.STATEMENTS_ATTRIBUTE);
+        assertNotNull(statements, "no statement log; is app.sql.inspection-enabled set?");
+        return statements;
+    }
+
+    public static ResultMatcher atMost(int max) {
+        return result -> {
+            StatementLog statements = of(result);
+            assertTrue(statements.count() <= max, () -> String.format("%s %s ran %d SQL statements, budget is %d:%n%s",
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(), statements.count(), max,
+                    describe(statements)));
+        };
+    }
+
+    // Bound parameters per statement, e.g. to keep IN lists under the driver's limit
+    public static ResultMatcher parametersAtMost(int max) {
+        return result -> {
+            for (String sql : of(result).executions().keySet()) {
+                long parameters = sql.chars().filter(c -> c == '?').count();
+                assertTrue(parameters <= max, () -> String.format("statement has %d parameters, limit is %d: %s",
+                        parameters, max, sql));
+            }
+        };
+    }
+
+    public static ResultMatcher noRepeats() {
+        return result -> {
+            StatementLog statements = of(result);
+            assertTrue(statements.executions().values().stream().allMatch(n -> n == 1),
+                    () -> "statements repeated within one request:\n" + describe(statements));
+        };
+    }
+
+    private static String describe(StatementLog statements) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Integer> execution : statements.executions().entrySet()) {
+            text.append(String.format("  %dx %s%n", execution.getValue(), execution.getKey()));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todo.stats;
+
+import com.example.todo.dto.ProductivityResponse;
+import com.example.todo.entity.TaskDailyStats;
+import com.example.todo.entity.User;
+import com.example.todo.exception.AppException;
+import com.example.todo.repository.TaskDailyStatsRepository;
+import com.example.todo.security.UserPrincipal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 3, 1, 9, 0);
+    private static final LocalDateTime DEADLINE = LocalDateTime.of(2030, 3, 5, 17, 0);
+
+    @Mock
+    private TaskDailyStatsRepository statsRepository;
+
+    @InjectMocks
+    private TaskStatsService statsService;
+
+    @Test
+    void recordChange_LateCompletion_CountsOnCompletionDay() {
+        TaskStatsSnapshot open = new TaskStatsSnapshot(CREATED, null, DEADLINE);
+        TaskStatsSnapshot done = new TaskStatsSnapshot(CREATED, DEADLINE.plusHours(2), DEADLINE);
+
+        statsService.recordChange(1L, open, done);
+
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 5), 0, 1, 0, 1, 7200L);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void recordChange_ReopenedAndDeleted_TakesContributionsBack() {
+        TaskStatsSnapshot done = new TaskStatsSnapshot(CREATED, DEADLINE.minusDays(1), DEADLINE);
+
+        statsService.recordChange(1L, done, null);
+
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 1), -1, 0, 0, 0, 0L);
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 4), 0, -1, -1, 0, 0L);
+    }
+
+    @Test
+    void recordChange_UnrelatedEdit_NoWrites() {
+        TaskStatsSnapshot open = new TaskStatsSnapshot(CREATED, null, DEADLINE);
+
+        statsService.recordChange(1L, open, new TaskStatsSnapshot(CREATED, null, DEADLINE));
+
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void recordRemoval_SubtreeSummedPerDay() {
+        TaskStatsSnapshot parent = new TaskStatsSnapshot(CREATED, null, DEADLINE);
+        TaskStatsSnapshot done = new TaskStatsSnapshot(CREATED, DEADLINE.minusDays(1), DEADLINE);
+        TaskStatsSnapshot late = new TaskStatsSnapshot(CREATED, DEADLINE.plusHours(1), DEADLINE);
+
+        statsService.recordRemoval(1L, List.of(parent, done, late));
+
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 1), -3, 0, 0, 0, 0L);
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 4), 0, -1, -1, 0, 0L);
+        verify(statsRepository).increment(1L, LocalDate.of(2030, 3, 5), 0, -1, 0, -1, -3600L);
+        verifyNoMoreInteractions(statsRepository);
+    }
+
+    @Test
+    void getProductivity_AggregatesRollupsOnly() {
+        User user = new User();
+        user.setId(1L);
+        LocalDate from = LocalDate.of(2030, 3, 1);
+        LocalDate to = LocalDate.of(2030, 3, 31);
+        when(statsRepository.findByUserIdAndDayBetweenOrderByDay(1L, from, to)).thenReturn(List.of(
+                new TaskDailyStats(1L, from, 4, 2, 2, 0, 0),
+                new TaskDailyStats(1L, from.plusDays(3), 1, 2, 0, 2, 3600)));
+
+        ProductivityResponse response = statsService.getProductivity(UserPrincipal.create(user), from, to);
+
+        assertEquals(5, response.getCreated());
+        assertEquals(4, response.getCompleted());
+        assertEquals(0.5, response.getOnTimeRate());
+        assertEquals(30.0, response.getAverageLatenessMinutes());
+        assertEquals(2, response.getDays().size());
+
+        assertThrows(AppException.class,
+                () -> statsService.getProductivity(UserPrincipal.create(user), from, from.plusYears(2)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.todo.timing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingFilterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilterTest.class);
+
+    @Test
+    void serverTiming_HoldsPhasesRecordedBeforeTheBody() throws Exception {
+        RequestTimingFilter filter = new RequestTimingFilter(1.0, 1000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tasks"), response, (req, res) -> {
+            long start = RequestTiming.start();
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+            RequestTiming.stop(RequestTiming.Phase.JWT, start);
+            start = RequestTiming.start();
+            RequestTiming.stop(RequestTiming.Phase.QUERY, start);
+            start = RequestTiming.start();
+            RequestTiming.stop(RequestTiming.Phase.QUERY, start);
+            res.getOutputStream().write(new byte[] { '[', ']' });
+        });
+
+        String header = response.getHeader(RequestTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(header.matches("jwt;dur=\\d+\\.\\d{3}, query;dur=\\d+\\.\\d{3}, app;dur=\\d+\\.\\d{3}"), header);
+        assertTrue(Double.parseDouble(header.substring(8, header.indexOf(','))) >= 2.0, header);
+        assertEquals(0L, RequestTiming.start(), "timing unbound after the request");
+    }
+
+    @Test
+    void serverTiming_AddedWhenNoBodyIsWritten() throws Exception {
+        RequestTimingFilter filter = new RequestTimingFilter(0.0, 1000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/api/tasks/1"), response,
+                (req, res) -> ((jakarta.servlet.http.HttpServletResponse) res).setStatus(204));
+
+        assertTrue(response.getHeader(RequestTimingFilter.SERVER_TIMING).startsWith("app;dur="));
+    }
+
+    @Test
+    void unboundPhases_AreNearlyFree() {
+        int iterations = 5_000_000;
+        long sink = 0;
+        for (int round = 0; round < 3; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                long start = RequestTiming.start();
+                sink += start;
+                RequestTiming.stop(RequestTiming.Phase.QUERY, start);
+            }
+            long perPhase = (System.nanoTime() - begin) / iterations;
+            log.debug("request timing off: {} ns per instrumented phase", perPhase);
+        }
+        assertEquals(0, sink);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.todo.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:timing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DAY,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/h2-schema",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.timing.enabled=true"
+})
+@AutoConfigureMockMvc
+class RequestTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void listTasks_ReportsEveryPhaseBeforeTheBody() throws Exception {
+        mockMvc.perform(post("/api/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"timed\",\"email\":\"timed@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        byte[] login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"identifier\":\"timed\",\"password\":\"secret123\"}"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String bearer = "Bearer " + new ObjectMapper().readTree(login).path("token").asText();
+        mockMvc.perform(post("/api/tasks").header("Authorization", bearer).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"timed task\"}"))
+                .andExpect(status().isCreated());
+
+        // A full first page, so Spring Data has to run the COUNT
+        String header = mockMvc.perform(get("/api/tasks?size=1").header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(RequestTimingFilter.SERVER_TIMING);
+
+        assertNotNull(header);
+        assertTrue(header.matches("jwt;dur=[\\d.]+, user;dur=[\\d.]+, query;dur=[\\d.]+, count;dur=[\\d.]+, "
+                + "app;dur=[\\d.]+"), header);
+    }
+}
@@ -0,0 +1,114 @@
+-- Current schema of db/migration in a form the embedded test databases accept.
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE TABLE oauth_credentials (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    provider VARCHAR(50) NOT NULL,
+    provider_id VARCHAR(255) NOT NULL,
+    email VARCHAR(255),
+    name VARCHAR(255),
+    UNIQUE (provider, provider_id),
+    CONSTRAINT fk_user_creds FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+CREATE TABLE tasks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    priority TINYINT NOT NULL,
+    status TINYINT NOT NULL,
+    deadline TIMESTAMP,
+    recurrence_frequency TINYINT,
+    recurrence_interval INT,
+    recurrence_until TIMESTAMP NULL,
+    completed_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    parent_id BIGINT NULL,
+    manual_rank VARCHAR(255) NOT NULL,
+    list_id BIGINT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_tasks_user ON tasks(user_id);
+CREATE INDEX idx_tasks_deadline ON tasks(deadline);
+CREATE INDEX idx_tasks_user_rank ON tasks(user_id, manual_rank);
+CREATE INDEX idx_tasks_list ON tasks(list_id);
+CREATE TABLE task_tree (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_task_tree_ancestor FOREIGN KEY (ancestor_id) REFERENCES tasks(id) ON DELETE CASCADE,
+    CONSTRAINT fk_task_tree_descendant FOREIGN KEY (descendant_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_task_tree_descendant ON task_tree(descendant_id, depth);
+CREATE TABLE task_tags (
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, name),
+    CONSTRAINT fk_task_tags_task FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_task_tags_user ON task_tags(user_id, name);
+CREATE TABLE task_occurrences (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    occurrence_at TIMESTAMP NOT NULL,
+    status TINYINT NOT NULL,
+    skipped BOOLEAN NOT NULL DEFAULT FALSE,
+    UNIQUE (task_id, occurrence_at),
+    CONSTRAINT fk_task_occurrences FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE
+);
+CREATE TABLE task_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    type TINYINT NOT NULL,
+    priority TINYINT NOT NULL,
+    status TINYINT NOT NULL,
+    occurred_at TIMESTAMP(3) NOT NULL
+);
+CREATE TABLE task_daily_stats (
+    user_id BIGINT NOT NULL,
+    day DATE NOT NULL,
+    created INT NOT NULL DEFAULT 0,
+    completed INT NOT NULL DEFAULT 0,
+    completed_on_time INT NOT NULL DEFAULT 0,
+    completed_late INT NOT NULL DEFAULT 0,
+    late_seconds BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, day)
+);
+CREATE TABLE idempotency_keys (
+    user_id BIGINT NOT NULL,
+    idem_key VARCHAR(255) NOT NULL,
+    fingerprint CHAR(64) NOT NULL,
+    response_status SMALLINT NULL,
+    response_content_type VARCHAR(255) NULL,
+    response_location VARCHAR(255) NULL,
+    response_etag VARCHAR(64) NULL,
+    response_body BLOB NULL,
+    expires_at TIMESTAMP(3) NOT NULL,
+    PRIMARY KEY (user_id, idem_key)
+);
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys(expires_at);
+CREATE TABLE task_lists (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_task_lists_owner ON task_lists(owner_id);
+CREATE TABLE task_list_members (
+    user_id BIGINT NOT NULL,
+    list_id BIGINT NOT NULL,
+    role TINYINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, list_id),
+    CONSTRAINT fk_task_list_members_list FOREIGN KEY (list_id) REFERENCES task_lists(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_task_list_members_list ON task_list_members(list_id);
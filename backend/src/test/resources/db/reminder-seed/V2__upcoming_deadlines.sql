@@ -0,0 +1,7 @@
+-- Open one-off tasks with future deadlines, present before the application starts
+INSERT INTO tasks (user_id, description, priority, status, deadline, manual_rank) VALUES
+    (1, 'upcoming 1', 2, 3, TIMESTAMP '2099-01-01 09:00:00', 'a0'),
+    (1, 'upcoming 2', 2, 2, TIMESTAMP '2099-02-01 09:00:00', 'a1'),
+    (2, 'upcoming 3', 1, 3, TIMESTAMP '2099-03-01 09:00:00', 'a0'),
+    (2, 'already done', 1, 1, TIMESTAMP '2099-03-01 09:00:00', 'a1'),
+    (2, 'overdue', 1, 3, TIMESTAMP '2000-01-01 09:00:00', 'a2');
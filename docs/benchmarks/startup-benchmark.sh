@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Time-to-first-request of the default boot jar versus the fast-startup build
+# (AOT + AppCDS). Needs the database from application.yml to be reachable.
+#
+#   cd backend
+#   mvn -DskipTests package                  # target/todo-app-0.0.1-SNAPSHOT.jar
+#   mvn -DskipTests -Pfast-startup package   # target/fast-startup/
+#   ../docs/benchmarks/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:${PORT}/api/tasks"
+TARGET=${TARGET:-target}
+
+now_ms() { date +%s%3N; }
+
+measure() {
+    local label=$1 dir=$2
+    shift 2
+    local total=0
+    for ((i = 1; i <= RUNS; i++)); do
+        local start pid elapsed
+        start=$(now_ms)
+        (cd "$dir" && exec java "$@" --server.port="$PORT") >/dev/null 2>&1 &
+        pid=$!
+        # Any HTTP status (401/403 without a token) means the server is serving requests
+        until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL")" != "000" ]; do
+            if ! kill -0 "$pid" 2>/dev/null; then
+                echo "$label: application exited before serving a request" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        elapsed=$(($(now_ms) - start))
+        total=$((total + elapsed))
+        kill "$pid" && wait "$pid" 2>/dev/null || true
+        echo "$label run $i: ${elapsed} ms"
+    done
+    echo "$label mean: $((total / RUNS)) ms"
+}
+
+measure "default" "$TARGET" -jar todo-app-0.0.1-SNAPSHOT.jar
+measure "fast-startup" "$TARGET/fast-startup" \
+    -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -jar todo-app-0.0.1-SNAPSHOT-fast-startup.jar
@@ -0,0 +1,75 @@
+-- Table and index size of the tasks table with VARCHAR(50) enum names (V1)
+-- versus TINYINT codes (V2), for a large synthetic dataset.
+--
+-- Run against a scratch MySQL 8 schema:
+--   mysql -u root -p < docs/benchmarks/task-column-encoding.sql
+--
+-- Both tables carry the same composite index on (user_id, priority, status)
+-- so the index comparison reflects the key width of the encoded columns.
+
+CREATE DATABASE IF NOT EXISTS todo_bench;
+USE todo_bench;
+
+DROP TABLE IF EXISTS tasks_varchar;
+DROP TABLE IF EXISTS tasks_tinyint;
+
+CREATE TABLE tasks_varchar (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    deadline TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_user_priority_status (user_id, priority, status)
+);
+
+CREATE TABLE tasks_tinyint (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    priority TINYINT NOT NULL,
+    status TINYINT NOT NULL,
+    deadline TIMESTAMP NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_user_priority_status (user_id, priority, status)
+);
+
+SET SESSION cte_max_recursion_depth = 2000000;
+
+-- 2M rows spread over 10k users
+INSERT INTO tasks_varchar (user_id, description, priority, status, deadline)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 2000000)
+SELECT n % 10000,
+       CONCAT('Task ', n),
+       ELT(1 + n % 3, 'URGENT', 'NORMAL', 'DO_WHEN_TIME_ALLOWS'),
+       ELT(1 + n % 4, 'DONE', 'IN_PROGRESS', 'NOT_STARTED', 'MISSED_DEADLINE'),
+       TIMESTAMPADD(MINUTE, n % 100000, '2030-01-01')
+FROM seq;
+
+INSERT INTO tasks_tinyint (user_id, description, priority, status, deadline)
+SELECT user_id,
+       description,
+       CASE priority WHEN 'URGENT' THEN 1 WHEN 'NORMAL' THEN 2 ELSE 3 END,
+       CASE status WHEN 'DONE' THEN 1 WHEN 'IN_PROGRESS' THEN 2 WHEN 'NOT_STARTED' THEN 3 ELSE 4 END,
+       deadline
+FROM tasks_varchar;
+
+ANALYZE TABLE tasks_varchar, tasks_tinyint;
+
+SELECT table_name,
+       table_rows,
+       ROUND(data_length / 1024 / 1024, 1) AS data_mb,
+       ROUND(index_length / 1024 / 1024, 1) AS index_mb
+FROM information_schema.tables
+WHERE table_schema = 'todo_bench'
+ORDER BY table_name;
+
+SELECT table_name,
+       index_name,
+       ROUND(stat_value * @@innodb_page_size / 1024 / 1024, 1) AS index_mb
+FROM mysql.innodb_index_stats
+WHERE database_name = 'todo_bench' AND stat_name = 'size'
+ORDER BY table_name, index_name;
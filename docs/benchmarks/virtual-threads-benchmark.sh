@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Throughput and latency of GET /api/tasks with the Tomcat thread pool versus
+# virtual threads (VIRTUAL_THREADS=true). Needs Java 21, wrk and the database
+# from application.yml. A benchmark user is signed up on the first run.
+#
+#   cd backend
+#   mvn -DskipTests package                  # on Java 21: target/todo-app-0.0.1-SNAPSHOT.jar
+#   ../docs/benchmarks/virtual-threads-benchmark.sh [connections] [duration]
+#
+# Run it with a connection count well above server.tomcat.threads.max (200) to
+# see the difference; app.concurrency-limit.max-limit may need raising as well,
+# since it sheds requests before either mode saturates.
+set -euo pipefail
+
+CONNECTIONS=${1:-1000}
+DURATION=${2:-30s}
+PORT=${PORT:-8080}
+BASE="http://localhost:${PORT}"
+JAR=${JAR:-target/todo-app-0.0.1-SNAPSHOT.jar}
+USERNAME=${BENCH_USER:-vtbench}
+PASSWORD=${BENCH_PASSWORD:-vtbench-password}
+
+start_app() {
+    VIRTUAL_THREADS=$1 java -jar "$JAR" --server.port="$PORT" >/dev/null 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/tasks")" != "000" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited before serving a request" >&2
+            exit 1
+        fi
+        sleep 0.1
+    done
+}
+
+token() {
+    curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$USERNAME\",\"email\":\"$USERNAME@example.com\",\"password\":\"$PASSWORD\"}" \
+        "$BASE/api/auth/signup" || true
+    curl -s -H 'Content-Type: application/json' \
+        -d "{\"identifier\":\"$USERNAME\",\"password\":\"$PASSWORD\"}" \
+        "$BASE/api/auth/login" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p'
+}
+
+measure() {
+    local label=$1 virtual=$2 jwt
+    start_app "$virtual"
+    jwt=$(token)
+    # Warm up JIT and the connection pool before the measured run
+    wrk -t4 -c100 -d10s -H "Authorization: Bearer $jwt" "$BASE/api/tasks" >/dev/null
+    echo "== $label (${CONNECTIONS} connections, ${DURATION})"
+    wrk -t8 -c"$CONNECTIONS" -d"$DURATION" --latency -H "Authorization: Bearer $jwt" "$BASE/api/tasks" \
+        | grep -E 'Requests/sec|Latency|50%|99%|Non-2xx|Socket errors'
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+}
+
+measure "thread pool" false
+measure "virtual threads" true